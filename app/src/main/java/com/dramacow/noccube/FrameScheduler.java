@@ -0,0 +1,51 @@
+package com.dramacow.noccube;
+
+import android.opengl.GLSurfaceView;
+
+// Renders continuously only while something is moving. Otherwise the view draws only when woken
+// (by input, or textures finishing loading), so a noccube sitting idle costs no battery.
+public class FrameScheduler {
+
+    private static final long FRAME_NS = 1000000000L / 60; // Assumed display refresh interval
+
+    private final GLSurfaceView view;
+    private boolean continuous = true; // GLSurfaceView's default
+    private boolean idle = false;      // Whether the last frame ended with nothing moving
+    private long idleSince;            // When it did (ns, from nanoTime so of any sign)
+    private volatile long skipped = 0; // Frames continuous rendering would have drawn, but were not
+
+    public FrameScheduler(final GLSurfaceView view) {
+        this.view = view;
+    }
+
+    // Asks for a frame soon (from any thread)
+    public void wake() {
+        view.requestRender();
+    }
+
+    // At the start of each frame (on the GL thread), returns whether rendering was paused before
+    // it, so the time since the last frame is not time anything should have moved for
+    public boolean beginFrame() {
+        if (!idle) return false;
+
+        skipped += (System.nanoTime() - idleSince) / FRAME_NS;
+        idle = false;
+        return true;
+    }
+
+    // At the end of each frame, whether anything is still moving (so the next frame is wanted)
+    public void endFrame(final boolean animating) {
+        if (animating != continuous) {
+            view.setRenderMode(animating ? GLSurfaceView.RENDERMODE_CONTINUOUSLY : GLSurfaceView.RENDERMODE_WHEN_DIRTY);
+            continuous = animating;
+        }
+        if (!animating) {
+            idle = true;
+            idleSince = System.nanoTime();
+        }
+    }
+
+    public long getSkippedFrames() {
+        return skipped;
+    }
+}
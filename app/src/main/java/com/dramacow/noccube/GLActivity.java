@@ -2,9 +2,15 @@ package com.dramacow.noccube;
 
 import android.app.Activity;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.Window;
 import android.view.WindowManager;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
 public class GLActivity extends Activity {
 
     private GLSurfaceViewEx surfaceView;
@@ -29,6 +35,10 @@ public class GLActivity extends Activity {
         // Consider de-allocating objects that
         // consume significant memory here.
         surfaceView.onPause();
+        Log.i("SAM", "Frames skipped while idle: " + surfaceView.getSkippedFrames());
+
+        if (Trace.LEVEL > Trace.OFF) dumpTrace();
+        dumpMetrics();
     }
 
     @Override
@@ -37,4 +47,33 @@ public class GLActivity extends Activity {
         // re-allocate de-allocated graphic objects from onPause()
         surfaceView.onResume();
     }
+
+    // Writes the trace recorded so far to the app's files directory (pull it with adb to view)
+    private void dumpTrace() {
+        try {
+            final Writer out = new FileWriter(new File(getFilesDir(), "trace.json"));
+            try {
+                Trace.dump(out);
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            Log.e("SAM", "Unable to write trace", e);
+        }
+    }
+
+    // Writes the frame metrics so far as CSV (a row per metric for each size of noccube played),
+    // also to the app's files directory
+    private void dumpMetrics() {
+        try {
+            final Writer out = new FileWriter(new File(getFilesDir(), "metrics.csv"));
+            try {
+                Metrics.dump(out);
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            Log.e("SAM", "Unable to write metrics", e);
+        }
+    }
 }
@@ -0,0 +1,256 @@
+package com.dramacow.noccube;
+
+import android.opengl.GLES20;
+import android.opengl.GLES30;
+import android.os.Build;
+
+import java.nio.Buffer;
+
+// Backend for a real OpenGL ES context, straight through to GLES20 (and GLES30 where available)
+public class GLES20Backend implements RenderBackend {
+
+    // Counters, since the last reset() (for Metrics)
+    public int drawCalls;
+    public int textureBinds;
+    public int uniformUploads;
+
+    public void reset() {
+        drawCalls = 0;
+        textureBinds = 0;
+        uniformUploads = 0;
+    }
+
+    // Whether the current context supports instanced arrays
+    @Override
+    public boolean supportsInstancing() {
+        final String version = GLES20.glGetString(GLES20.GL_VERSION);
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2
+            && version != null && version.startsWith("OpenGL ES 3.");
+    }
+
+    // State
+    @Override
+    public void glClearColor(final float red, final float green, final float blue, final float alpha) {
+        GLES20.glClearColor(red, green, blue, alpha);
+    }
+
+    @Override
+    public void glClear(final int mask) {
+        GLES20.glClear(mask);
+    }
+
+    @Override
+    public void glViewport(final int x, final int y, final int width, final int height) {
+        GLES20.glViewport(x, y, width, height);
+    }
+
+    @Override
+    public void glEnable(final int cap) {
+        GLES20.glEnable(cap);
+    }
+
+    @Override
+    public void glBlendFunc(final int sfactor, final int dfactor) {
+        GLES20.glBlendFunc(sfactor, dfactor);
+    }
+
+    @Override
+    public void glGetIntegerv(final int pname, final int[] params, final int offset) {
+        GLES20.glGetIntegerv(pname, params, offset);
+    }
+
+    @Override
+    public String glGetString(final int name) {
+        return GLES20.glGetString(name);
+    }
+
+    // Shaders
+    @Override
+    public int glCreateShader(final int type) {
+        return GLES20.glCreateShader(type);
+    }
+
+    @Override
+    public void glShaderSource(final int shader, final String string) {
+        GLES20.glShaderSource(shader, string);
+    }
+
+    @Override
+    public void glCompileShader(final int shader) {
+        GLES20.glCompileShader(shader);
+    }
+
+    @Override
+    public void glGetShaderiv(final int shader, final int pname, final int[] params, final int offset) {
+        GLES20.glGetShaderiv(shader, pname, params, offset);
+    }
+
+    @Override
+    public String glGetShaderInfoLog(final int shader) {
+        return GLES20.glGetShaderInfoLog(shader);
+    }
+
+    @Override
+    public void glDeleteShader(final int shader) {
+        GLES20.glDeleteShader(shader);
+    }
+
+    @Override
+    public int glCreateProgram() {
+        return GLES20.glCreateProgram();
+    }
+
+    @Override
+    public void glAttachShader(final int program, final int shader) {
+        GLES20.glAttachShader(program, shader);
+    }
+
+    @Override
+    public void glLinkProgram(final int program) {
+        GLES20.glLinkProgram(program);
+    }
+
+    @Override
+    public void glGetProgramiv(final int program, final int pname, final int[] params, final int offset) {
+        GLES20.glGetProgramiv(program, pname, params, offset);
+    }
+
+    @Override
+    public String glGetProgramInfoLog(final int program) {
+        return GLES20.glGetProgramInfoLog(program);
+    }
+
+    @Override
+    public void glDeleteProgram(final int program) {
+        GLES20.glDeleteProgram(program);
+    }
+
+    @Override
+    public void glUseProgram(final int program) {
+        GLES20.glUseProgram(program);
+    }
+
+    @Override
+    public int glGetUniformLocation(final int program, final String name) {
+        return GLES20.glGetUniformLocation(program, name);
+    }
+
+    @Override
+    public int glGetAttribLocation(final int program, final String name) {
+        return GLES20.glGetAttribLocation(program, name);
+    }
+
+    // Uniforms
+    @Override
+    public void glUniform1i(final int location, final int x) {
+        uniformUploads++;
+        GLES20.glUniform1i(location, x);
+    }
+
+    @Override
+    public void glUniform1f(final int location, final float x) {
+        uniformUploads++;
+        GLES20.glUniform1f(location, x);
+    }
+
+    @Override
+    public void glUniform4f(final int location, final float x, final float y, final float z, final float w) {
+        uniformUploads++;
+        GLES20.glUniform4f(location, x, y, z, w);
+    }
+
+    @Override
+    public void glUniform4fv(final int location, final int count, final float[] v, final int offset) {
+        uniformUploads++;
+        GLES20.glUniform4fv(location, count, v, offset);
+    }
+
+    @Override
+    public void glUniformMatrix4fv(final int location, final int count, final boolean transpose, final float[] value, final int offset) {
+        uniformUploads++;
+        GLES20.glUniformMatrix4fv(location, count, transpose, value, offset);
+    }
+
+    // Buffers
+    @Override
+    public void glGenBuffers(final int n, final int[] buffers, final int offset) {
+        GLES20.glGenBuffers(n, buffers, offset);
+    }
+
+    @Override
+    public void glBindBuffer(final int target, final int buffer) {
+        GLES20.glBindBuffer(target, buffer);
+    }
+
+    @Override
+    public void glBufferData(final int target, final int size, final Buffer data, final int usage) {
+        GLES20.glBufferData(target, size, data, usage);
+    }
+
+    @Override
+    public void glBufferSubData(final int target, final int offset, final int size, final Buffer data) {
+        GLES20.glBufferSubData(target, offset, size, data);
+    }
+
+    // Attributes
+    @Override
+    public void glEnableVertexAttribArray(final int index) {
+        GLES20.glEnableVertexAttribArray(index);
+    }
+
+    @Override
+    public void glDisableVertexAttribArray(final int index) {
+        GLES20.glDisableVertexAttribArray(index);
+    }
+
+    @Override
+    public void glVertexAttribPointer(final int index, final int size, final int type, final boolean normalized, final int stride, final int offset) {
+        GLES20.glVertexAttribPointer(index, size, type, normalized, stride, offset);
+    }
+
+    @Override
+    public void glVertexAttribDivisor(final int index, final int divisor) {
+        GLES30.glVertexAttribDivisor(index, divisor);
+    }
+
+    // Textures
+    @Override
+    public void glGenTextures(final int n, final int[] textures, final int offset) {
+        GLES20.glGenTextures(n, textures, offset);
+    }
+
+    @Override
+    public void glBindTexture(final int target, final int texture) {
+        textureBinds++;
+        GLES20.glBindTexture(target, texture);
+    }
+
+    @Override
+    public void glTexParameteri(final int target, final int pname, final int param) {
+        GLES20.glTexParameteri(target, pname, param);
+    }
+
+    @Override
+    public void glCompressedTexImage2D(final int target, final int level, final int internalformat, final int width, final int height,
+                                       final int border, final int imageSize, final Buffer data) {
+        GLES20.glCompressedTexImage2D(target, level, internalformat, width, height, border, imageSize, data);
+    }
+
+    @Override
+    public void glGenerateMipmap(final int target) {
+        GLES20.glGenerateMipmap(target);
+    }
+
+    // Drawing
+    @Override
+    public void glDrawElements(final int mode, final int count, final int type, final int offset) {
+        drawCalls++;
+        GLES20.glDrawElements(mode, count, type, offset);
+    }
+
+    @Override
+    public void glDrawElementsInstanced(final int mode, final int count, final int type, final int offset, final int instanceCount) {
+        drawCalls++;
+        GLES30.glDrawElementsInstanced(mode, count, type, offset, instanceCount);
+    }
+}
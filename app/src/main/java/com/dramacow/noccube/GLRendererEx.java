@@ -3,11 +3,12 @@ package com.dramacow.noccube;
 import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
-import android.opengl.GLES20;
 import android.opengl.GLSurfaceView;
 import android.opengl.GLUtils;
 import android.opengl.Matrix;
 import android.os.SystemClock;
+import android.util.Log;
+import android.view.MotionEvent;
 
 import javax.microedition.khronos.egl.EGLConfig;
 import javax.microedition.khronos.opengles.GL10;
@@ -15,17 +16,36 @@ import javax.microedition.khronos.opengles.GL10;
 public class GLRendererEx implements GLSurfaceView.Renderer {
 
     private Context context;
-    private float time;
+    private final FrameScheduler scheduler;
+    private final GLES20Backend gl = new GLES20Backend();
+
+    // Faces (and inside) compressed offline, laid out in a grid in the order of faceIds
+    private static final String FACES_ASSET = "textures/faces.ktx";
+    private static final int FACES_GRID_COLUMNS = 4;
+    private static final int FACES_GRID_ROWS = 2;
+    // Each tile's edge texels repeat out 1/FACES_GUTTER of a tile all round, so filtering (at any of
+    // the mipmaps sampled) never reaches a neighbouring face. Must match tools/compress-textures.sh.
+    private static final int FACES_GUTTER = 16;
+
+    // Animation runs in fixed steps of 1/120s, frames longer than 250ms (stalls) are cut short
+    private final FixedStepClock clock = new FixedStepClock(1000000000L / 120, 250000000L);
+
+    // Textures are decoded in the background (see TextureAtlas), and uploaded a little per frame
+    private static final long UPLOAD_BUDGET_NS = 4000000L;
+    private boolean loading;
+    private long surfaceCreated; // ms, for timing how long until the first frame and until loaded
+    private boolean firstFrame;
 
     // Resources TODO: maybe some simple asset manager (nothing too fancy)
-    int inside;
-    int textures[];
-    int begin;
-    int leftarrow;
-    int rightarrow;
-    int warning;
-    int noccube;
-    int quit;
+    TextureAtlas atlas; // The GUI images below (and the faces when drawn from their images)
+    TextureRegion inside;
+    TextureRegion textures[];
+    TextureRegion begin;
+    TextureRegion leftarrow;
+    TextureRegion rightarrow;
+    TextureRegion warning;
+    TextureRegion noccube;
+    TextureRegion quit;
 
     // GUI
     // MAIN MENU
@@ -36,6 +56,10 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
     private Button lblTitle;
     // PLAY
     private Button btnQuit;
+
+    // Frame metrics, shown over everything when toggled (from any thread)
+    private MetricsOverlay metricsOverlay;
+    private volatile boolean showMetrics;
     // Configuration variables
     private int d = 2;
     // Matrices
@@ -49,8 +73,18 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
     private float eyeX, eyeY, eyeZ;
     private float radius = 10.0f;
     // Local rotation variables
-    public int face0; // initial face
-    public float point0[]; // Initial touch point
+    private final Picker picker = new Picker();
+    private int face0; // initial face
+    private final float point0[] = new float[3]; // Initial touch point
+    private final int cube0[] = new int[3];      // ...and the cube under it
+
+    // Touch input, published by the view on the UI thread and handled here on the GL thread
+    private static final int INPUT_CAPACITY = 256;
+    final InputQueue input = new InputQueue(INPUT_CAPACITY);
+    private boolean rotatingCamera = false;
+    private boolean rotatingCube = false;
+    private float x1, y1;
+    private float x2, y2;
     // Matrices
     private final float viewMatrix[]           // Matrix represents where the "camera" is/is facing
             = new float[16];
@@ -58,6 +92,8 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
             = new float[16];
     private final float vpMatrix[]             // viewM * projectionM
             = new float[16];
+    private final float invVPMatrix[]          // Inverse of vpMatrix, for picking
+            = new float[16];
 
     // Game states
     private static final int MAIN_MENU = 0;
@@ -78,6 +114,17 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
         "   gl_Position = uMVPMatrix * aPosition;" +
         "}";
 
+    // GUI quads are flat, so need no vertex colours
+    private final String guiVertexShaderCode =
+        "uniform mat4 uMVPMatrix;"                 +
+        "attribute vec4 aPosition;"                +
+        "attribute vec2 aTexCoord;"                +
+        "varying vec2 vTexCoord;"                  +
+        "void main() {"                            +
+        "   vTexCoord = aTexCoord;"                +
+        "   gl_Position = uMVPMatrix * aPosition;" +
+        "}";
+
     private final String fragmentShaderCode =
         "precision mediump float;"                      +
         "varying vec4 vColour;"                         +
@@ -89,60 +136,107 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
         "   gl_FragColor.a *= uAlpha;"                  +
         "}";
 
-    private int program;
+    private ShaderProgram program;    // Cubes
+    private ShaderProgram guiProgram; // Buttons and labels
 
-    public GLRendererEx(final Context context) {
+    // Pixels finishing decoding in the background still need a frame to be uploaded in
+    // NOTE: only registered while resumed, as TextureAtlas holds it statically (and this holds the activity)
+    private final Runnable onDecoded = new Runnable() {
+        @Override
+        public void run() {
+            scheduler.wake();
+        }
+    };
+
+    public GLRendererEx(final Context context, final FrameScheduler scheduler) {
         this.context = context;
+        this.scheduler = scheduler;
 
         // NOTE: Do NOT put any OpenGL code in this constructor
         // since the context has not yet been made.
         // Instead, use onSurfaceCreated
     }
 
+    // From the UI thread, along with the view
+    public void onResume() {
+        TextureAtlas.setOnDecoded(onDecoded);
+    }
+
+    public void onPause() {
+        TextureAtlas.removeOnDecoded(onDecoded);
+    }
+
     public void onSurfaceCreated(GL10 unused, EGLConfig config) {
+        GL.setBackend(gl);
+
+        // Any buffers (and textures) from a previous context are gone
+        Geometry.invalidate();
+        TextureAtlas.invalidate();
+        Metrics.setMaxSection(FaceGridRenderer.MAX_D); // A section for every size the menu allows
+        surfaceCreated = SystemClock.uptimeMillis();
+        firstFrame = true;
+
         // Set clock
-        time = SystemClock.uptimeMillis() / 1000.0f;
+        clock.reset(System.nanoTime());
 
         // Set view matrix
         setViewMatrix(latitude, longitude);
 
         // Set the background frame color
-        GLES20.glClearColor(1.0f, 1.0f, 1.0f, 1.0f);
+        gl.glClearColor(1.0f, 1.0f, 1.0f, 1.0f);
 
         // Necessary for maintaining correct alpha
-        GLES20.glEnable(GLES20.GL_DEPTH_TEST);
+        gl.glEnable(RenderBackend.GL_DEPTH_TEST);
 
         // Enable blending (for alpha)
-        GLES20.glEnable(GLES20.GL_BLEND);
-        GLES20.glBlendFunc(GLES20.GL_ONE, GLES20.GL_ONE_MINUS_SRC_ALPHA);
-
-        // Set up shader
-        int vertexShader = loadShader(GLES20.GL_VERTEX_SHADER, vertexShaderCode);
-        int fragmentShader = loadShader(GLES20.GL_FRAGMENT_SHADER, fragmentShaderCode);
+        gl.glEnable(RenderBackend.GL_BLEND);
+        gl.glBlendFunc(RenderBackend.GL_ONE, RenderBackend.GL_ONE_MINUS_SRC_ALPHA);
 
-        program = GLES20.glCreateProgram();             // create empty OpenGL ES Program
-        GLES20.glAttachShader(program, vertexShader);   // add the vertex shader to program
-        GLES20.glAttachShader(program, fragmentShader); // add the fragment shader to program
-        GLES20.glLinkProgram(program);
-
-        GLES20.glUseProgram(program);
+        // Set up shaders
+        ShaderProgram.invalidateCurrent();
+        program = new ShaderProgram(vertexShaderCode, fragmentShaderCode);
+        guiProgram = new ShaderProgram(guiVertexShaderCode, fragmentShaderCode);
 
         // Load resources
-        inside = loadTexture(context, R.drawable.inside);
-        textures = new int[] {
-            loadTexture(context, R.drawable.blue),
-            loadTexture(context, R.drawable.green),
-            loadTexture(context, R.drawable.red),
-            loadTexture(context, R.drawable.orange),
-            loadTexture(context, R.drawable.yellow),
-            loadTexture(context, R.drawable.purple)
+        TextureRegion.invalidateBinding();
+        // NOTE: the faces (and inside) come compressed where the context can take them (see
+        //       tools/compress-textures.sh), otherwise from their images laid out the same way. Either
+        //       way mipmapped, in a texture of their own.
+        final int faceIds[] = {
+            R.drawable.inside,
+            R.drawable.blue,
+            R.drawable.green,
+            R.drawable.red,
+            R.drawable.orange,
+            R.drawable.yellow,
+            R.drawable.purple
+        };
+        final int guiIds[] = {
+            R.drawable.begin,
+            R.drawable.leftarrow,
+            R.drawable.rightarrow,
+            R.drawable.warning,
+            R.drawable.noccube,
+            R.drawable.quit
         };
-        begin = loadTexture(context, R.drawable.begin);
-        leftarrow = loadTexture(context, R.drawable.leftarrow);
-        rightarrow = loadTexture(context, R.drawable.rightarrow);
-        warning = loadTexture(context, R.drawable.warning);
-        noccube = loadTexture(context, R.drawable.noccube);
-        quit = loadTexture(context, R.drawable.quit);
+        final TextureAtlas faces = new TextureAtlas(context, faceIds, FACES_GRID_COLUMNS, FACES_GRID_ROWS, FACES_GUTTER, FACES_ASSET);
+        atlas = new TextureAtlas(context, guiIds);
+        inside = faces.region(0);
+        textures = new TextureRegion[] {
+            faces.region(1),
+            faces.region(2),
+            faces.region(3),
+            faces.region(4),
+            faces.region(5),
+            faces.region(6)
+        };
+        begin = atlas.region(0);
+        leftarrow = atlas.region(1);
+        rightarrow = atlas.region(2);
+        warning = atlas.region(3);
+        noccube = atlas.region(4);
+        quit = atlas.region(5);
+        loading = true;
 
         // GUI setup
         // =========
@@ -154,9 +248,11 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
             @Override
             public void onClick() {
                 // Prevent restarting the Noccube when re-initialising the screen (e.g after putting the screen to sleep)
-                if (!(cube instanceof NOCCubeRenderer)) {
+                if (!(cube instanceof PuzzleRenderer)) {
                     NOCCube noccube = new NOCCube(d);
-                    cube = new NOCCubeRenderer(noccube, inside, textures);
+                    // Past a point, drawing every cube is hopeless (even when instanced)
+                    cube = d >= FaceGridRenderer.MIN_D ? new FaceGridRenderer(noccube, inside, textures)
+                                                       : new NOCCubeRenderer(noccube, inside, textures);
 
                     state = PLAY;
                 }
@@ -165,7 +261,7 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
         btnIncreaseD = new Button(rightarrow) {
             @Override
             public void onClick() {
-                d++;
+                d = d < FaceGridRenderer.MAX_D ? d+1 : FaceGridRenderer.MAX_D;
             }
         };
         btnDecreaseD = new Button(leftarrow) {
@@ -184,6 +280,122 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
                 cube = new DisplayCubeRenderer(textures);
             }
         };
+        metricsOverlay = new MetricsOverlay();
+
+        // Setting up is not part of any frame
+        gl.reset();
+    }
+
+    public void toggleMetrics() {
+        showMetrics = !showMetrics;
+    }
+
+    // Handles a touch sample from the view
+    private void handleTouch(final InputQueue.Event e) {
+        // Touch co-ordinates
+        final float x = e.x;
+        final float y = e.y;
+
+        // Screen dimensions
+        final float w = e.width;
+        final float h = e.height;
+
+        // Normalised device co-ordinates
+        final float norm_x = ( (2.0f*x) / w ) - 1.0f;
+        final float norm_y = -( (2.0f*y) / h ) + 1.0f; // Negated since y-axis upside down in opengl
+
+        switch (e.action) {
+            case MotionEvent.ACTION_DOWN: {
+                handleInput(norm_x, norm_y, 0);
+
+                x1 = x;
+                y1 = y;
+
+                final int face = picker.pick(invVPMatrix, norm_x, norm_y, getD());
+
+                if (face != -1) {
+                    rotatingCube = true;
+                    face0 = face;
+                    System.arraycopy(picker.point, 0, point0, 0, 3);
+                    System.arraycopy(picker.cube, 0, cube0, 0, 3);
+                } else {
+                    rotatingCamera = true;
+                }
+                break;
+            }
+
+            case MotionEvent.ACTION_MOVE: {
+                if (rotatingCamera) {
+                    x2 = x;
+                    y2 = y;
+
+                    adjustViewAngle(
+                            2.0f * (float) Math.PI * ((y2 - y1) / h),
+                            4.0f * (float) Math.PI * ((x2 - x1) / w)
+                    );
+
+                    x1 = x2;
+                    y1 = y2;
+                }
+                break;
+            }
+
+            case MotionEvent.ACTION_UP: {
+                if (rotatingCube) {
+                    final int face = picker.pick(invVPMatrix, norm_x, norm_y, getD());
+
+                    if (face == face0) {
+                        final float dx = picker.point[0] - point0[0];
+                        final float dy = picker.point[1] - point0[1];
+                        final float dz = picker.point[2] - point0[2];
+
+                        int axis = 0;
+                        boolean clockwise = false;
+
+                        // front and back faces
+                        if (face == Picker.FRONT || face == Picker.BACK) {
+                            if (Math.abs(dx) < Math.abs(dy)) {
+                                axis = NOCCube.AXIS_X;
+                                clockwise = (face == Picker.FRONT && dy < 0.0f) || (face == Picker.BACK && dy >= 0.0f);
+                            } else {
+                                axis = NOCCube.AXIS_Y;
+                                clockwise = (face == Picker.FRONT && dx >= 0.0f) || (face == Picker.BACK && dx < 0.0f);
+                            }
+                        }
+                        // left and right faces
+                        else if (face == Picker.LEFT || face == Picker.RIGHT) {
+                            if (Math.abs(dy) < Math.abs(dz)) {
+                                axis = NOCCube.AXIS_Y;
+                                clockwise = (face == Picker.LEFT && dz >= 0.0f) || (face == Picker.RIGHT && dz < 0.0f);
+                            } else {
+                                axis = NOCCube.AXIS_Z;
+                                clockwise = (face == Picker.LEFT && dy < 0.0f) || (face == Picker.RIGHT && dy >= 0.0f);
+                            }
+                        }
+                        // top and bottom faces
+                        else if (face == Picker.TOP || face == Picker.BOTTOM) {
+                            if (Math.abs(dx) < Math.abs(dz)) {
+                                axis = NOCCube.AXIS_X;
+                                clockwise = (face == Picker.TOP && dz >= 0.0f) || (face == Picker.BOTTOM && dz < 0.0f);
+                            } else {
+                                axis = NOCCube.AXIS_Z;
+                                clockwise = (face == Picker.TOP && dx < 0.0f) || (face == Picker.BOTTOM && dx >= 0.0f);
+                            }
+                        }
+
+                        // The slice turned is the one holding the cube first touched
+                        cube.permute(axis, cube0[axis], clockwise);
+                    }
+                }
+                rotatingCamera = rotatingCube = false;
+                break;
+            }
+        }
+    }
+
+    // Size of the noccube being played (1 for the display cube, so the whole cube is one slice)
+    private int getD() {
+        return cube instanceof PuzzleRenderer ? ((PuzzleRenderer)cube).getNOCCube().d : 1;
     }
 
     public void handleInput(final float x, final float y, final int input_type) {
@@ -204,47 +416,94 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
     }
 
     public void onDrawFrame(GL10 unused) {
-        // Get delta time
-        float dt = SystemClock.uptimeMillis() / 1000.0f - time;
-        time = SystemClock.uptimeMillis() / 1000.0f;
+        if (Trace.LEVEL >= Trace.VERBOSE) Trace.begin(Trace.FRAME, 0, 0);
+        // Nothing was moving while rendering was paused, so none of that time is stepped
+        if (scheduler.beginFrame()) clock.reset(System.nanoTime());
+
+        // Metrics are kept apart for each size of noccube, so sizes can be compared
+        Metrics.select(cube instanceof PuzzleRenderer ? d : 0);
+        Metrics.begin(Metrics.FRAME);
+
+        if (loading) {
+            Metrics.begin(Metrics.UPLOAD);
+            loading = TextureAtlas.uploadPending(UPLOAD_BUDGET_NS);
+            Metrics.end(Metrics.UPLOAD);
+            if (!loading) Log.i("SAM", "Textures loaded after " + (SystemClock.uptimeMillis() - surfaceCreated) + "ms");
+        }
 
-        // Redraw background colour
-        GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT | GLES20.GL_DEPTH_BUFFER_BIT);
+        // Input since the last frame
+        Metrics.begin(Metrics.INPUT);
+        for (InputQueue.Event e = input.peek(); e != null; e = input.peek()) {
+            handleTouch(e);
+            input.release();
+        }
+        Metrics.end(Metrics.INPUT);
 
-        Matrix.multiplyMM(vpMatrix, 0, projectionMatrix, 0, viewMatrix, 0);
+        // Redraw background colour
+        Metrics.begin(Metrics.SUBMIT);
+        gl.glClear(RenderBackend.GL_COLOR_BUFFER_BIT | RenderBackend.GL_DEPTH_BUFFER_BIT);
 
         switch (state) {
             case MAIN_MENU: {
-                btnBegin.draw(guiMatrix, program);
-                btnIncreaseD.draw(guiMatrix, program);
-                if (d > 2 ) btnDecreaseD.draw(guiMatrix, program);
-                if (d >= 6) lblWarning.draw(guiMatrix, program);
-                lblTitle.draw(guiMatrix, program);
+                btnBegin.draw(guiMatrix, guiProgram);
+                btnIncreaseD.draw(guiMatrix, guiProgram);
+                if (d > 2 ) btnDecreaseD.draw(guiMatrix, guiProgram);
+                if (d >= 6) lblWarning.draw(guiMatrix, guiProgram);
+                lblTitle.draw(guiMatrix, guiProgram);
                 break;
             }
             case PLAY: {
                 /* TODO: *throws up*
                          Pretty sure this causes a massive slow down... */
-                if (((NOCCubeRenderer)cube).getAnimationState() == NOCCubeRenderer.COMPLETE) {
+                if (((PuzzleRenderer)cube).getAnimationState() == NOCCubeRenderer.COMPLETE) {
                     state = MAIN_MENU;
                     cube = new DisplayCubeRenderer(textures);
                 }
-                else if (((NOCCubeRenderer)cube).getAnimationState() < NOCCubeRenderer.SOLVED) {
-                    btnQuit.draw(guiMatrix, program);
+                else if (((PuzzleRenderer)cube).getAnimationState() < NOCCubeRenderer.SOLVED) {
+                    btnQuit.draw(guiMatrix, guiProgram);
                 }
             }
         }
-        cube.draw(vpMatrix, program, dt);
+        if (showMetrics) metricsOverlay.draw(guiMatrix, guiProgram);
+        Metrics.end(Metrics.SUBMIT);
+
+        // Animate in fixed steps, drawing however far between the last two this frame is
+        Metrics.begin(Metrics.UPDATE);
+        for (int steps = clock.advance(System.nanoTime()); steps > 0; steps--) {
+            cube.update(clock.stepSeconds());
+        }
+        Metrics.end(Metrics.UPDATE);
+        cube.render(vpMatrix, program, clock.interpolation());
+
+        if (firstFrame) {
+            firstFrame = false;
+            Log.i("SAM", "First frame after " + (SystemClock.uptimeMillis() - surfaceCreated) + "ms");
+        }
+
+        // Another frame straight away only while something moves (or is ready to upload, or the
+        // metrics are shown, so they keep up)
+        scheduler.endFrame(showMetrics || rotatingCamera || (loading && TextureAtlas.hasDecoded())
+                || (cube instanceof PuzzleRenderer && ((PuzzleRenderer)cube).getAnimationState() != NOCCubeRenderer.IDLE));
+
+        Metrics.count(Metrics.DRAW_CALLS, gl.drawCalls);
+        Metrics.count(Metrics.TEXTURE_BINDS, gl.textureBinds);
+        Metrics.count(Metrics.UNIFORM_UPLOADS, gl.uniformUploads);
+        gl.reset();
+        Metrics.end(Metrics.FRAME);
+        Metrics.endFrame();
+
+        if (Trace.LEVEL >= Trace.VERBOSE) Trace.end(Trace.FRAME, 0, 0);
     }
 
     public void onSurfaceChanged(GL10 unused, int width, int height) {
-        GLES20.glViewport(0, 0, width, height);
+        gl.glViewport(0, 0, width, height);
 
         // For taking into account the non-square aspect ratio of the device's display
         float ratio = (float) width / height;
 
         // Set projection matrix, to be used on eye co-ordinates on frame draw
         Matrix.frustumM(projectionMatrix, 0, ratio * -1, ratio * 1, -1, 1, 3, 32);
+        updateViewProjection();
 
         /*float tmpMatrix[] = new float[16];
         Matrix.orthoM(guiMatrix, 0, ratio * -1, ratio * 1, -1, 1, 3, 32);
@@ -258,6 +517,8 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
         lblTitle.set(0.0f, 0.625f, 0.75f, 0.125f);
 
         btnQuit.set(0.8125f, 0.875f, 0.1875f, 0.125f);
+
+        metricsOverlay.set(-0.5f, 0.75f, 0.5f, 0.25f); // Top left
     }
 
     public void adjustViewAngle(float latAdj, float longAdj) {
@@ -278,103 +539,48 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
         // View                          |---EYE--------|  |---CENTER-----|  |--UP VECTOR-|
         // NOTE: vectors eye and up must be sufficiently perpendicular (i.e. not parallel), else viewMatrix is undefined
         Matrix.setLookAtM(viewMatrix, 0, eyeX, eyeY, eyeZ, 0.0f, 0.0f, 0.0f, upX, upY, upZ);
+        updateViewProjection();
     }
 
-    public int castRay(final float point[], final float x, final float y) {
-        final float tmpMatrix[] = new float[16];
-
-        // Homogeneous clip co-ordinates
-        final float ray[] = new float[] { x, y, -1.0f, 1.0f };
-
-        // Eye co-ordinates
-        Matrix.invertM(tmpMatrix, 0, projectionMatrix, 0);
-        Matrix.multiplyMV(ray, 0, tmpMatrix, 0, ray.clone(), 0);
-        ray[2] = -1.0f; ray[3] = 0.0f; // forwards facing, not a point
-
-        // World co-ordinates
-        Matrix.invertM(tmpMatrix, 0, viewMatrix, 0);
-        Matrix.multiplyMV(ray, 0, tmpMatrix, 0, ray.clone(), 0);
-        final float D[] = new float[] { ray[0], ray[1], ray[2] }; // xyz
-
-        // Normalise (any point to this?)
-        final float mag = (float) Math.sqrt( D[0]*D[0] + D[1]*D[1] + D[2]*D[2] );
-        D[0] /= mag; D[1] /= mag; D[2] /= mag;
-
-        /*
-        Log.d("SAM", "RAY: " + Float.toString(ray[0]) + ", " + Float.toString(ray[1]) + ", " + Float.toString(ray[2]));
-        Log.d("SAM", "Dsam :" + D[0] + ", " + D[1] + ", " + D[2]);
-        Log.d("SAM", "EYE: " + Float.toString(eyeX) + ", " + Float.toString(eyeY) + ", " + Float.toString(eyeZ));
-        */
-
-        float distance = Float.POSITIVE_INFINITY;
-        int face = -1;
-
-        for (int i = 0; i < 6; i++) {
-            final float n[] = { NOCCubeRenderer.normal[3*i], NOCCubeRenderer.normal[3*i+1], NOCCubeRenderer.normal[3*i+2] };
-            final float d = (float) Math.sqrt(n[0]*n[0] + n[1]*n[1] + n[2]*n[2]);
-
-            final float denom = (D[0]*n[0] + D[1]*n[1] + D[2]*n[2]);
-            if (denom == 0.0f) continue;
-
-            float t = -( (eyeX*n[0] + eyeY*n[1] + eyeZ*n[2]) - d ) / denom;
-
-            final float p[] = { //point
-                eyeX + t*D[0],
-                eyeY + t*D[1],
-                eyeZ + t*D[2],
-            };
-
-            if (!((-1.0f <= p[0] && p[0] <= 1.0f) && (-1.0f <= p[1] && p[1] <= 1.0f) && (-1.0f <= p[2] && p[2] <= 1.0f))) {
-                t = Float.POSITIVE_INFINITY;
-            }
-
-            if (t < distance) {
-                distance = t;
-                face = i;
-            }
-        }
-
-        point[0] = eyeX + distance*D[0];
-        point[1] = eyeY + distance*D[1];
-        point[2] = eyeZ + distance*D[2];
-
-        //Log.d("SAM", "POINT: " + point[0] + ", " + point[1] + ", " + point[2]);
-
-        return face;
+    // NOTE: only the view and projection changing changes these, so they are not worked out per
+    //       frame (or per touch)
+    private void updateViewProjection() {
+        Matrix.multiplyMM(vpMatrix, 0, projectionMatrix, 0, viewMatrix, 0);
+        Matrix.invertM(invVPMatrix, 0, vpMatrix, 0);
     }
 
     // Loader/setup functions
-    public static int loadShader(int type, String shaderCode){
-        int shader = GLES20.glCreateShader(type);
-        GLES20.glShaderSource(shader, shaderCode);
-        GLES20.glCompileShader(shader);
-        return shader;
+
+    public static Bitmap decodeResource(final Context context, final int resourceId) {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScaled = false; // No pre-scaling
+
+        // Read in resource (decode into a format understood by Android)
+        return BitmapFactory.decodeResource(context.getResources(), resourceId, options);
     }
 
-    public static int loadTexture(final Context context, final int resourceId) {
+    public static int loadTexture(final Bitmap bitmap) {
+        final RenderBackend gl = GL.backend();
         final int[] textureHandle = new int[1];
 
-        GLES20.glGenTextures(1, textureHandle, 0);
+        gl.glGenTextures(1, textureHandle, 0);
 
         if (textureHandle[0] != 0) {
-            final BitmapFactory.Options options = new BitmapFactory.Options();
-            options.inScaled = false; // No pre-scaling
-
-            // Read in resource (decode into a format understood by Android)
-            final Bitmap bitmap = BitmapFactory.decodeResource(context.getResources(), resourceId, options);
-
             // Bind to the texture in OpenGL (Subsequent GL calls will refer to this texture)
-            GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textureHandle[0]);
+            gl.glBindTexture(RenderBackend.GL_TEXTURE_2D, textureHandle[0]);
+            TextureRegion.invalidateBinding();
 
             // Set filtering (Nearest picks closest texel)
-            GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_NEAREST);
-            GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_NEAREST);
+            gl.glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_MIN_FILTER, RenderBackend.GL_NEAREST);
+            gl.glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_MAG_FILTER, RenderBackend.GL_NEAREST);
 
-            // Load the bitmap into the bound texture.
-            GLUtils.texImage2D(GLES20.GL_TEXTURE_2D, 0, bitmap, 0);
+            // Regions of an atlas must never wrap around into their neighbours
+            gl.glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_WRAP_S, RenderBackend.GL_CLAMP_TO_EDGE);
+            gl.glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_WRAP_T, RenderBackend.GL_CLAMP_TO_EDGE);
 
-            // Recycle the bitmap, since its data has been loaded into OpenGL.
-            bitmap.recycle();
+            // Load the bitmap into the bound texture.
+            // NOTE: Bitmaps only exist on Android, so this skips the render backend
+            GLUtils.texImage2D(RenderBackend.GL_TEXTURE_2D, 0, bitmap, 0);
         }
 
         if (textureHandle[0] == 0)
@@ -384,4 +590,4 @@ public class GLRendererEx implements GLSurfaceView.Renderer {
 
         return textureHandle[0];
     }
-}
\ No newline at end of file
+}
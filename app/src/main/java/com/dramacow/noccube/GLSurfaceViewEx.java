@@ -1,148 +1,65 @@
 package com.dramacow.noccube;
 
+import android.app.ActivityManager;
 import android.content.Context;
 import android.opengl.GLSurfaceView;
-import android.util.Log;
 import android.view.MotionEvent;
 
 public class GLSurfaceViewEx extends GLSurfaceView {
 
     private GLRendererEx renderer;
-    private boolean rotatingCamera = false;
-    private boolean rotatingCube = false;
-
-    private float x1, y1;
-    private float x2, y2;
+    private final FrameScheduler scheduler = new FrameScheduler(this);
 
     GLSurfaceViewEx(Context context) {
         super(context);
-        setEGLContextClientVersion(2);
-        renderer = new GLRendererEx(context); //SHADER GETS CREATED IN HERE
+
+        // OpenGL ES 3.0 where available (for instanced drawing), everything else only needs 2.0
+        final ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        setEGLContextClientVersion(activityManager.getDeviceConfigurationInfo().reqGlEsVersion >= 0x30000 ? 3 : 2);
+        renderer = new GLRendererEx(context, scheduler); //SHADER GETS CREATED IN HERE
         setRenderer(renderer);
 
-        // Render the view only when there is a change in the drawing data (only ideal for GUIs)
-        //setRenderMode(GLSurfaceView.RENDERMODE_WHEN_DIRTY);
+        // NOTE: the view renders continuously only while something is moving, and otherwise only
+        //       when there is a change in the drawing data (see FrameScheduler)
     }
 
     @Override
-    public boolean onTouchEvent(MotionEvent e) {
-        // MotionEvent reports input details from touch screen, and other input controls.
-        //renderer.permute(NOCCube.AXIS_X, 0, false);
-
-        // Touch co-ordinates
-        final float x = e.getX();
-        final float y = e.getY();
-
-        // Screen dimensions
-        final float w = getWidth();
-        final float h = getHeight();
-
-        // Normalised device co-ordinates
-        final float norm_x = ( (2.0f*x) / w ) - 1.0f;
-        final float norm_y = -( (2.0f*y) / h ) + 1.0f; // Negated since y-axis upside down in opengl
-
-        switch (e.getAction()) {
-            case MotionEvent.ACTION_DOWN: {
-                renderer.handleInput(norm_x, norm_y, 0);
-
-                x1 = x;
-                y1 = y;
-
-                final float point[] = new float[3];
-                final int face = renderer.castRay(point, norm_x, norm_y);
-
-                if (face != -1) {
-                    rotatingCube = true;
-                    renderer.face0 = face;
-                    renderer.point0 = point;
-                } else {
-                    rotatingCamera = true;
-                }
-                break;
-            }
-
-            case MotionEvent.ACTION_MOVE: {
-                if (rotatingCamera) {
-                    x2 = x;
-                    y2 = y;
-
-                    renderer.adjustViewAngle(
-                            2.0f * (float) Math.PI * ((y2 - y1) / h),
-                            4.0f * (float) Math.PI * ((x2 - x1) / w)
-                    );
-
-                    x1 = x2;
-                    y1 = y2;
-                }
-                break;
-            }
-
-            case MotionEvent.ACTION_UP: {
-                if (rotatingCube) {
-                    final float point[] = new float[3];
-                    final int face = renderer.castRay(point, norm_x, norm_y);
-
-                    if (face == renderer.face0) {
-                        int d = 1;
-                        if (renderer.cube instanceof NOCCubeRenderer) {
-                            d = ((NOCCubeRenderer)renderer.cube).noccube.d;
-                        }
-
-                        final float delta[] = {
-                                point[0] - renderer.point0[0],
-                                point[1] - renderer.point0[1],
-                                point[2] - renderer.point0[2]
-                        };
+    public void onResume() {
+        super.onResume();
+        renderer.onResume();
+    }
 
-                        int axis = 0;
-                        int slice = 0;
-                        boolean clockwise = false;
+    @Override
+    public void onPause() {
+        renderer.onPause();
+        super.onPause();
+    }
 
-                        // front and back faces
-                        if (face == 0 || face == 1) {
-                            if (Math.abs(delta[0]) < Math.abs(delta[1])) {
-                                axis = NOCCube.AXIS_X;
-                                slice = (int) Math.floor(((renderer.point0[0] + 1.0f) / 2.0f) * d);
-                                clockwise = (face == 0 && delta[1] < 0.0f) || (face == 1 && delta[1] >= 0.0f);
-                            } else {
-                                axis = NOCCube.AXIS_Y;
-                                slice = (int) Math.floor(((renderer.point0[1] + 1.0f) / 2.0f) * d);
-                                clockwise = (face == 0 && delta[0] >= 0.0f) || (face == 1 && delta[0] < 0.0f);
-                            }
-                        }
-                        // left and right faces
-                        else if (face == 2 || face == 3) {
-                            if (Math.abs(delta[1]) < Math.abs(delta[2])) {
-                                axis = NOCCube.AXIS_Y;
-                                slice = (int) Math.floor(((renderer.point0[1] + 1.0f) / 2.0f) * d);
-                                clockwise = (face == 2 && delta[2] >= 0.0f) || (face == 3 && delta[2] < 0.0f);
-                            } else {
-                                axis = NOCCube.AXIS_Z;
-                                slice = (int) Math.floor(((renderer.point0[2] + 1.0f) / 2.0f) * d);
-                                clockwise = (face == 2 && delta[1] < 0.0f) || (face == 3 && delta[1] >= 0.0f);
-                            }
-                        }
-                        // top and bottom faces
-                        else if (face == 4 || face == 5) {
-                            if (Math.abs(delta[0]) < Math.abs(delta[2])) {
-                                axis = NOCCube.AXIS_X;
-                                slice = (int) Math.floor(((renderer.point0[0] + 1.0f) / 2.0f) * d);
-                                clockwise = (face == 4 && delta[2] >= 0.0f) || (face == 5 && delta[2] < 0.0f);
-                            } else {
-                                axis = NOCCube.AXIS_Z;
-                                slice = (int) Math.floor(((renderer.point0[2] + 1.0f) / 2.0f) * d);
-                                clockwise = (face == 4 && delta[0] < 0.0f) || (face == 5 && delta[0] >= 0.0f);
-                            }
-                        }
+    @Override
+    public boolean onTouchEvent(MotionEvent e) {
+        // MotionEvent reports input details from touch screen, and other input controls.
+        // NOTE: this runs on the UI thread, so the sample is only handed over here and is acted
+        //       on by the GL thread at the start of its next frame (see GLRendererEx.onDrawFrame)
+        final InputQueue.Event event = renderer.input.claim();
+        if (event != null) {
+            event.action = e.getAction();
+            event.x = e.getX();
+            event.y = e.getY();
+            event.width = getWidth();
+            event.height = getHeight();
+            renderer.input.publish();
+        }
 
-                        renderer.cube.permute(axis, slice, clockwise);
-                    }
-                }
-                rotatingCamera = rotatingCube = false;
-                break;
-            }
+        // Three fingers down toggles the frame metrics
+        if (e.getActionMasked() == MotionEvent.ACTION_POINTER_DOWN && e.getPointerCount() == 3) {
+            renderer.toggleMetrics();
         }
+        scheduler.wake();
 
         return true;
     }
-}
\ No newline at end of file
+
+    public long getSkippedFrames() {
+        return scheduler.getSkippedFrames();
+    }
+}
@@ -0,0 +1,83 @@
+package com.dramacow.noccube;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.opengl.GLUtils;
+import android.os.SystemClock;
+
+// Debug overlay of the frame metrics of the current section (see Metrics), drawn as text into a
+// texture that is refreshed a couple of times a second.
+// NOTE: refreshing allocates (strings), which is fine for debugging but keeps this off by default.
+public class MetricsOverlay {
+
+    private static final int WIDTH = 512, HEIGHT = 256; // Texels
+    private static final float TEXT_SIZE = 18.0f;
+    private static final float LINE = 20.0f;
+    private static final long REFRESH_MS = 500;
+    private static final int BACKGROUND = 0xA0000000;
+
+    private final Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+    private final Canvas canvas = new Canvas(bitmap);
+    private final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    private final int texture;
+    private final Button label;
+    private long refreshed = -1;
+
+    // To be made with the rest of the GUI, once there is a context
+    public MetricsOverlay() {
+        paint.setColor(Color.WHITE);
+        paint.setTextSize(TEXT_SIZE);
+        paint.setTypeface(Typeface.MONOSPACE);
+
+        bitmap.eraseColor(BACKGROUND);
+        texture = GLRendererEx.loadTexture(bitmap);
+        label = new Button(new TextureRegion(texture, 0.0f, 0.0f, 1.0f, 1.0f));
+    }
+
+    public void set(final float x, final float y, final float w, final float h) {
+        label.set(x, y, w, h);
+    }
+
+    public void draw(final float[] vpMatrix, final ShaderProgram program) {
+        final long now = SystemClock.uptimeMillis();
+        if (refreshed < 0 || now - refreshed >= REFRESH_MS) {
+            refreshed = now;
+            refresh();
+        }
+
+        label.draw(vpMatrix, program);
+    }
+
+    private void refresh() {
+        final FrameMetrics metrics = Metrics.get();
+        final int section = metrics.selected();
+
+        bitmap.eraseColor(BACKGROUND);
+        float y = LINE;
+        final Histogram frames = metrics.histogram(section, Metrics.FRAME);
+        canvas.drawText((section == 0 ? "menu" : "d=" + section) + "  " + frames.count() + " frames", 8.0f, y, paint);
+        y += LINE;
+        canvas.drawText(String.format("%-16s%7s%7s%7s%7s", "per frame (ms)", "p50", "p95", "p99", "max"), 8.0f, y, paint);
+
+        for (int i = 0; i < Metrics.COUNT; i++) {
+            final Histogram h = metrics.histogram(section, i);
+            y += LINE;
+
+            // Times in ms, counts as they are
+            final String line = metrics.isTimed(i)
+                ? String.format("%-16s%7.2f%7.2f%7.2f%7.2f", metrics.name(i),
+                        h.percentile(0.50) / 1e6, h.percentile(0.95) / 1e6, h.percentile(0.99) / 1e6, h.max() / 1e6)
+                : String.format("%-16s%7d%7d%7d%7d", metrics.name(i),
+                        h.percentile(0.50), h.percentile(0.95), h.percentile(0.99), h.max());
+            canvas.drawText(line, 8.0f, y, paint);
+        }
+
+        GL.backend().glBindTexture(RenderBackend.GL_TEXTURE_2D, texture);
+        TextureRegion.invalidateBinding();
+        GLUtils.texSubImage2D(RenderBackend.GL_TEXTURE_2D, 0, 0, 0, bitmap);
+    }
+}
@@ -0,0 +1,446 @@
+package com.dramacow.noccube;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Rect;
+import android.opengl.GLUtils;
+import android.os.Process;
+import android.util.Log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+// Packs a set of images into one texture, so everything drawn from them shares a single texture binding.
+// Either packed as they are (drawn texel for texel), or into a grid of tiles that is mipmapped (drawn
+// at any size), which may instead be read already compressed from the assets.
+// NOTE: only the image sizes are read when an atlas is made, the images themselves are decoded and
+//       packed on a background thread into pixels kept for the life of the process (so a new surface,
+//       e.g. after sleep, just uploads them again). Until then the texture is a placeholder texel.
+public class TextureAtlas {
+
+    // Gap left around each image, so neighbouring images never bleed into each other
+    private static final int PADDING = 2;
+
+    // Formats a grid may be read in (when the context can sample them)
+    private static final int COMPRESSED_FORMATS[] = {
+        RenderBackend.GL_ETC1_RGB8_OES,
+        RenderBackend.GL_COMPRESSED_RGB8_ETC2,
+        RenderBackend.GL_COMPRESSED_RGBA8_ETC2_EAC
+    };
+
+    private static final int PLACEHOLDER_COLOUR = 0xFFBFBFBF;
+    private static Bitmap placeholder;
+
+    // Images are decoded one after another, at low priority so the GL thread keeps drawing
+    private static final ExecutorService decoder = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable task) {
+            final Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    task.run();
+                }
+            }, "TextureAtlas");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    // Where the images of each set of resources go, and the pixels once packed
+    private static final class Layout {
+        int width, height;
+        int positions[]; // x, y of each image
+        int sizes[];     // width, height of each image
+        int gutter;      // Texels of repeated edge round each image of a grid (0 when packed)
+        Future<Object> pixels; // A Bitmap, or a KtxTexture for a grid read compressed
+    }
+    private static final HashMap<String, Layout> layouts = new HashMap<String, Layout>();
+
+    // Atlases of the current context still showing the placeholder
+    private static final ArrayList<TextureAtlas> pending = new ArrayList<TextureAtlas>();
+
+    // Run (on the decoder thread) whenever an atlas's pixels become ready to upload
+    private static volatile Runnable onDecoded;
+
+    public final int texture;
+    private final Layout layout;
+    private final TextureRegion regions[];
+
+    public TextureAtlas(final Context context, final int resourceIds[]) {
+        this(layout(context.getApplicationContext(), resourceIds), resourceIds.length);
+    }
+
+    // The images left to right along a grid of columns x rows square tiles (the size of the largest
+    // image, to a power of two), each image shrunk into its tile leaving 1/gutter of the tile all
+    // round filled with its edge texels. Mipmaps are sampled only while that edge is a texel wide
+    // (OpenGL ES 3.0), so filtering never mixes neighbouring images until they are a few texels on
+    // screen. The grid is read from the KTX file asset instead, when there is one in a format the
+    // context can sample (see tools/compress-textures.sh, which lays out the faces the same way).
+    public TextureAtlas(final Context context, final int resourceIds[], final int columns, final int rows, final int gutter, final String asset) {
+        this(grid(context.getApplicationContext(), resourceIds, columns, rows, gutter, asset), resourceIds.length);
+    }
+
+    private TextureAtlas(final Layout layout, final int images) {
+        this.layout = layout;
+
+        if (placeholder == null) {
+            placeholder = Bitmap.createBitmap(1, 1, Bitmap.Config.ARGB_8888);
+            placeholder.eraseColor(PLACEHOLDER_COLOUR);
+        }
+        texture = GLRendererEx.loadTexture(placeholder);
+        pending.add(this);
+
+        regions = new TextureRegion[images];
+        for (int i = 0; i < images; i++) {
+            regions[i] = new TextureRegion(
+                texture,
+                (float) layout.positions[2*i] / layout.width,
+                (float) layout.positions[2*i + 1] / layout.height,
+                (float) (layout.positions[2*i] + layout.sizes[2*i]) / layout.width,
+                (float) (layout.positions[2*i + 1] + layout.sizes[2*i + 1]) / layout.height
+            );
+        }
+    }
+
+    // Region holding the image of resourceIds[i]
+    public TextureRegion region(final int i) {
+        return regions[i];
+    }
+
+    // Uploads the atlases whose pixels are ready, until budgetNanos has been spent (though always
+    // trying at least one). Returns whether any are still waiting.
+    public static boolean uploadPending(final long budgetNanos) {
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < pending.size() && (i == 0 || System.nanoTime() - start < budgetNanos); ) {
+            final TextureAtlas atlas = pending.get(i);
+            if (!atlas.layout.pixels.isDone()) {
+                i++;
+                continue;
+            }
+
+            atlas.upload();
+            pending.remove(i);
+        }
+
+        return !pending.isEmpty();
+    }
+
+    // Whether any atlas is waiting only to be uploaded
+    public static boolean hasDecoded() {
+        for (int i = 0; i < pending.size(); i++) {
+            if (pending.get(i).layout.pixels.isDone()) return true;
+        }
+        return false;
+    }
+
+    public static synchronized void setOnDecoded(final Runnable listener) {
+        onDecoded = listener;
+    }
+
+    // Forgets listener, unless another has been set since (e.g. by a new activity)
+    public static synchronized void removeOnDecoded(final Runnable listener) {
+        if (onDecoded == listener) onDecoded = null;
+    }
+
+    // To be called whenever the context is lost, as its textures have gone with it
+    public static void invalidate() {
+        pending.clear();
+    }
+
+    private void upload() {
+        final Object pixels;
+        try {
+            pixels = layout.pixels.get();
+        } catch (InterruptedException e) {
+            throw new RuntimeException("Error loading texture atlas.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error loading texture atlas.", e.getCause());
+        }
+
+        if (pixels instanceof KtxTexture) {
+            final KtxTexture compressed = (KtxTexture) pixels;
+            compressed.upload(texture);
+            // NOTE: a chain already stopping short is sampled to its end
+            if (compressed.hasMipmaps()) limitMipmaps(layout.gutter * compressed.width / layout.width);
+            return;
+        }
+
+        final RenderBackend gl = GL.backend();
+        gl.glBindTexture(RenderBackend.GL_TEXTURE_2D, texture);
+        TextureRegion.invalidateBinding();
+        GLUtils.texImage2D(RenderBackend.GL_TEXTURE_2D, 0, (Bitmap) pixels, 0);
+
+        if (layout.gutter > 0) {
+            gl.glGenerateMipmap(RenderBackend.GL_TEXTURE_2D);
+            gl.glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_MIN_FILTER, RenderBackend.GL_LINEAR_MIPMAP_LINEAR);
+            gl.glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_MAG_FILTER, RenderBackend.GL_LINEAR);
+            limitMipmaps(layout.gutter);
+        }
+    }
+
+    // Stops sampling the bound texture's mipmaps past the one where an edge this many texels wide
+    // is down to a single texel.
+    // NOTE: OpenGL ES 2.0 has no GL_TEXTURE_MAX_LEVEL, so there the whole chain is sampled and the
+    //       images only mix once drawn smaller than a tile / gutter pixels across.
+    public static void limitMipmaps(final int gutter) {
+        if (!KtxTexture.isEs3()) return;
+
+        int level = 0;
+        for (int g = gutter; g > 1; g >>= 1) level++;
+        GL.backend().glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_MAX_LEVEL, level);
+    }
+
+    // Packs the images of resourceIds (once per process), and starts decoding them
+    private static Layout layout(final Context context, final int resourceIds[]) {
+        final String key = Arrays.toString(resourceIds);
+        Layout layout = layouts.get(key);
+        if (layout != null) return layout;
+
+        layout = new Layout();
+        layout.sizes = new int[2*resourceIds.length];
+        layout.positions = new int[2*resourceIds.length];
+
+        // Just the sizes, from the image headers
+        final BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inScaled = false;
+        bounds.inJustDecodeBounds = true;
+        for (int i = 0; i < resourceIds.length; i++) {
+            BitmapFactory.decodeResource(context.getResources(), resourceIds[i], bounds);
+            layout.sizes[2*i] = bounds.outWidth;
+            layout.sizes[2*i + 1] = bounds.outHeight;
+        }
+        final int sizes[] = layout.sizes;
+
+        // Shelf packing: images are placed tallest first, left to right along rows
+        final Integer order[] = new Integer[resourceIds.length];
+        int area = 0, widest = 0;
+        for (int i = 0; i < resourceIds.length; i++) {
+            order[i] = i;
+            area += (sizes[2*i] + 2*PADDING) * (sizes[2*i + 1] + 2*PADDING);
+            widest = Math.max(widest, sizes[2*i] + 2*PADDING);
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer a, final Integer b) {
+                return sizes[2*b + 1] - sizes[2*a + 1];
+            }
+        });
+
+        final int width = powerOfTwo(Math.max(widest, (int) Math.ceil(Math.sqrt(area))));
+        int x = 0, y = 0, shelfHeight = 0;
+
+        for (int i : order) {
+            final int w = sizes[2*i] + 2*PADDING;
+            final int h = sizes[2*i + 1] + 2*PADDING;
+
+            if (x + w > width) {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+
+            layout.positions[2*i] = x + PADDING;
+            layout.positions[2*i + 1] = y + PADDING;
+            x += w;
+            shelfHeight = Math.max(shelfHeight, h);
+        }
+
+        layout.width = width;
+        layout.height = powerOfTwo(y + shelfHeight);
+
+        decode(context, resourceIds, layout, null, null);
+        layouts.put(key, layout);
+        return layout;
+    }
+
+    // Lays out the images of resourceIds as a grid (once per process), and starts reading asset or
+    // decoding them
+    private static Layout grid(final Context context, final int resourceIds[], final int columns, final int rows, final int gutter, final String asset) {
+        if (resourceIds.length > columns * rows) throw new IllegalArgumentException("Error: " + resourceIds.length + " images in a " + columns + "x" + rows + " grid");
+
+        final String key = Arrays.toString(resourceIds) + " " + columns + "x" + rows + "/" + gutter + " " + asset;
+        Layout layout = layouts.get(key);
+        if (layout != null) return layout;
+
+        // Just the sizes, from the image headers
+        final BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inScaled = false;
+        bounds.inJustDecodeBounds = true;
+        int largest = 1;
+        for (int i = 0; i < resourceIds.length; i++) {
+            BitmapFactory.decodeResource(context.getResources(), resourceIds[i], bounds);
+            largest = Math.max(largest, Math.max(bounds.outWidth, bounds.outHeight));
+        }
+
+        // NOTE: power of two tiles (and so texture), so every mipmap halves each tile exactly
+        final int tile = powerOfTwo(largest);
+        layout = new Layout();
+        layout.gutter = Math.max(1, tile / gutter);
+        layout.width = columns * tile;
+        layout.height = rows * tile;
+        layout.sizes = new int[2*resourceIds.length];
+        layout.positions = new int[2*resourceIds.length];
+        for (int i = 0; i < resourceIds.length; i++) {
+            layout.positions[2*i] = (i % columns) * tile + layout.gutter;
+            layout.positions[2*i + 1] = (i / columns) * tile + layout.gutter;
+            layout.sizes[2*i] = layout.sizes[2*i + 1] = tile - 2*layout.gutter;
+        }
+
+        // NOTE: which compressed formats the context samples can only be asked here, on the GL thread
+        final boolean supported[] = new boolean[COMPRESSED_FORMATS.length];
+        for (int i = 0; i < supported.length; i++) supported[i] = KtxTexture.isSupported(COMPRESSED_FORMATS[i]);
+
+        decode(context, resourceIds, layout, asset, supported);
+        layouts.put(key, layout);
+        return layout;
+    }
+
+    // Starts reading asset (if any, and in one of the supported COMPRESSED_FORMATS), or otherwise
+    // drawing the images, into the layout's pixels on the decoder thread
+    private static void decode(final Context context, final int resourceIds[], final Layout layout,
+                               final String asset, final boolean supported[]) {
+        final FutureTask<Object> pixels = new FutureTask<Object>(new Callable<Object>() {
+            @Override
+            public Object call() {
+                if (asset != null) {
+                    final KtxTexture compressed = read(context, asset);
+                    if (compressed != null) {
+                        for (int i = 0; i < COMPRESSED_FORMATS.length; i++) {
+                            if (supported[i] && compressed.internalFormat == COMPRESSED_FORMATS[i]) return compressed;
+                        }
+                    }
+                }
+                return draw(context, resourceIds, layout);
+            }
+        }) {
+            @Override
+            protected void done() {
+                // NOTE: only once done, so the pixels are there for whatever the listener wakes
+                final Runnable listener = onDecoded;
+                if (listener != null) listener.run();
+            }
+        };
+        decoder.execute(pixels);
+        layout.pixels = pixels;
+    }
+
+    // Reads a KTX file from the assets (on the decoder thread) straight into the buffer it is
+    // uploaded from, or returns null when it is missing or unusable
+    private static KtxTexture read(final Context context, final String asset) {
+        try {
+            // NOTE: only assets stored uncompressed in the APK have a descriptor (and so a length)
+            long length = -1;
+            try {
+                final AssetFileDescriptor descriptor = context.getAssets().openFd(asset);
+                length = descriptor.getLength();
+                descriptor.close();
+            } catch (IOException e) {
+                length = -1;
+            }
+
+            final InputStream in = context.getAssets().open(asset);
+            try {
+                ByteBuffer data = ByteBuffer.allocateDirect(length >= 0 ? (int) length : Math.max(in.available(), 1));
+                final ReadableByteChannel channel = Channels.newChannel(in);
+                while (true) {
+                    if (data.hasRemaining()) {
+                        if (channel.read(data) == -1) break;
+                        continue;
+                    }
+
+                    // Full, though available() is only an estimate, so there may be more
+                    final int next = in.read();
+                    if (next == -1) break;
+                    final ByteBuffer larger = ByteBuffer.allocateDirect(2 * data.capacity());
+                    data.flip();
+                    larger.put(data).put((byte) next);
+                    data = larger;
+                }
+                data.flip();
+                return new KtxTexture(data);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return null; // Not packaged
+        } catch (IllegalArgumentException e) {
+            Log.w("SAM", "Unusable compressed texture " + asset + ", using the images instead", e);
+            return null; // Not a 2D compressed KTX file (or truncated), so the same as not packaged
+        }
+    }
+
+    // Draws every image into the atlas (on the decoder thread)
+    private static Bitmap draw(final Context context, final int resourceIds[], final Layout layout) {
+        final Bitmap atlas = Bitmap.createBitmap(layout.width, layout.height, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(atlas);
+        final Rect destination = new Rect();
+
+        for (int i = 0; i < resourceIds.length; i++) {
+            final Bitmap bitmap = GLRendererEx.decodeResource(context, resourceIds[i]);
+
+            // Explicit destination, so the image is copied texel for texel whatever its density
+            destination.set(
+                layout.positions[2*i], layout.positions[2*i + 1],
+                layout.positions[2*i] + layout.sizes[2*i], layout.positions[2*i + 1] + layout.sizes[2*i + 1]
+            );
+            canvas.drawBitmap(bitmap, null, destination, null);
+            if (layout.gutter > 0) extendEdges(canvas, bitmap, destination, layout.gutter);
+            bitmap.recycle();
+        }
+
+        return atlas;
+    }
+
+    // Repeats the edge texels of bitmap (just drawn into destination) gutter texels out all round
+    private static void extendEdges(final Canvas canvas, final Bitmap bitmap, final Rect destination, final int gutter) {
+        final int w = bitmap.getWidth(), h = bitmap.getHeight();
+        final int left = destination.left, top = destination.top, right = destination.right, bottom = destination.bottom;
+        final Rect source = new Rect(), edge = new Rect();
+
+        // Sides, each stretched from a row (or column) of texels
+        source.set(0, 0, w, 1);         edge.set(left, top - gutter, right, top);
+        canvas.drawBitmap(bitmap, source, edge, null);
+        source.set(0, h - 1, w, h);     edge.set(left, bottom, right, bottom + gutter);
+        canvas.drawBitmap(bitmap, source, edge, null);
+        source.set(0, 0, 1, h);         edge.set(left - gutter, top, left, bottom);
+        canvas.drawBitmap(bitmap, source, edge, null);
+        source.set(w - 1, 0, w, h);     edge.set(right, top, right + gutter, bottom);
+        canvas.drawBitmap(bitmap, source, edge, null);
+
+        // Corners, each from a single texel
+        source.set(0, 0, 1, 1);         edge.set(left - gutter, top - gutter, left, top);
+        canvas.drawBitmap(bitmap, source, edge, null);
+        source.set(w - 1, 0, w, 1);     edge.set(right, top - gutter, right + gutter, top);
+        canvas.drawBitmap(bitmap, source, edge, null);
+        source.set(0, h - 1, 1, h);     edge.set(left - gutter, bottom, left, bottom + gutter);
+        canvas.drawBitmap(bitmap, source, edge, null);
+        source.set(w - 1, h - 1, w, h); edge.set(right, bottom, right + gutter, bottom + gutter);
+        canvas.drawBitmap(bitmap, source, edge, null);
+    }
+
+    private static int powerOfTwo(final int n) {
+        int p = 1;
+        while (p < n) p <<= 1;
+        return p;
+    }
+}
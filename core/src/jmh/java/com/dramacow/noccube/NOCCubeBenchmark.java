@@ -0,0 +1,92 @@
+package com.dramacow.noccube;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NOCCubeBenchmark {
+
+    // Length of the pre-generated move sequence (a power of two, so it can be cycled with a mask)
+    private static final int MOVES = 1024;
+
+    @Param({"2", "3", "5", "8", "16", "32", "64"})
+    public int d;
+
+    private NOCCube cube;
+
+    // Pre-generated moves, as parallel arrays
+    private final int axes[] = new int[MOVES];
+    private final int slices[] = new int[MOVES];
+    private final boolean clockwise[] = new boolean[MOVES];
+    private int next;
+
+    @Setup
+    public void setup() {
+        cube = new NOCCube(d);
+
+        // Fixed seed so every run (and every build being compared) plays the same moves
+        final Random rand = new Random(0x5EED);
+        for (int i = 0; i < MOVES; i++) {
+            axes[i] = rand.nextInt(3);
+            slices[i] = rand.nextInt(d);
+            clockwise[i] = rand.nextBoolean();
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean singleMove() {
+        final int i = next++ & (MOVES - 1);
+        return cube.rotate(axes[i], slices[i], clockwise[i]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(MOVES)
+    public void randomMoves(final Blackhole bh) {
+        for (int i = 0; i < MOVES; i++) {
+            bh.consume(cube.rotate(axes[i], slices[i], clockwise[i]));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean solvedCheck() {
+        return cube.isSolved();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean scrambleAndReplay(final Blackhole bh) {
+        // Scramble, then replay the scramble backwards to restore the cube
+        for (int i = 0; i < MOVES; i++) {
+            bh.consume(cube.rotate(axes[i], slices[i], clockwise[i]));
+        }
+        for (int i = MOVES - 1; i >= 0; i--) {
+            bh.consume(cube.rotate(axes[i], slices[i], !clockwise[i]));
+        }
+        return cube.isSolved();
+    }
+}
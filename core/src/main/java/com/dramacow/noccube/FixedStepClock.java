@@ -0,0 +1,52 @@
+package com.dramacow.noccube;
+
+// Turns real time (System.nanoTime) into a whole number of fixed length animation steps per frame,
+// carrying what is left over into the next frame. How far the leftover is into the next step is
+// kept for drawing in between, so animation runs the same whatever the display's refresh rate.
+public final class FixedStepClock {
+
+    public final long stepNanos;
+    private final long maxFrameNanos; // Longer frames (e.g. a stall) are cut short, rather than caught up on
+
+    // NOTE: nanoTime has no fixed origin (it may well be negative), so whether the clock has started
+    //       is kept apart rather than read from the time
+    private boolean started = false;
+    private long last;
+    private long accumulator = 0; // Time not yet stepped
+
+    public FixedStepClock(final long stepNanos, final long maxFrameNanos) {
+        this.stepNanos = stepNanos;
+        this.maxFrameNanos = maxFrameNanos;
+    }
+
+    // Counts from now, forgetting any time not yet stepped (e.g. after rendering was paused)
+    public void reset(final long now) {
+        started = true;
+        last = now;
+        accumulator = 0;
+    }
+
+    // Returns how many steps to take this frame
+    public int advance(final long now) {
+        if (!started) reset(now);
+
+        long frame = now - last;
+        if (frame < 0) frame = 0;
+        if (frame > maxFrameNanos) frame = maxFrameNanos;
+        last = now;
+
+        accumulator += frame;
+        final int steps = (int) (accumulator / stepNanos);
+        accumulator -= steps * stepNanos;
+        return steps;
+    }
+
+    // How far into the next step (0 to 1) this frame is
+    public float interpolation() {
+        return (float) accumulator / stepNanos;
+    }
+
+    public float stepSeconds() {
+        return stepNanos / 1e9f;
+    }
+}
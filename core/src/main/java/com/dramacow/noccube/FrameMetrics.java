@@ -0,0 +1,100 @@
+package com.dramacow.noccube;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Per frame totals (time spent in each phase of a frame, and how many of each GL call it made)
+// kept as a histogram per metric, in sections (e.g. one per noccube size) to compare them by.
+// NOTE: everything but reading is for the thread drawing the frames. Sections are only allocated
+//       when first selected, so frames allocate nothing.
+public final class FrameMetrics {
+
+    private final String names[];
+    private final int timed; // Metrics below this are times (ns), the rest counts
+    private final Histogram sections[][];
+    private int section = 0;
+
+    private final long started[]; // When each timed metric last began
+    private final long frame[];   // Totals of the frame so far
+
+    public FrameMetrics(final String names[], final int timed, final int sections) {
+        this.names = names;
+        this.timed = timed;
+        this.sections = new Histogram[sections][];
+        this.started = new long[timed];
+        this.frame = new long[names.length];
+        select(0);
+    }
+
+    // Sends the frames that follow to section s
+    public void select(final int s) {
+        if (s < 0 || s >= sections.length) throw new IllegalArgumentException("Error: no metrics section " + s);
+
+        if (sections[s] == null) {
+            final Histogram histograms[] = new Histogram[names.length];
+            for (int i = 0; i < histograms.length; i++) histograms[i] = new Histogram();
+            sections[s] = histograms;
+        }
+        section = s;
+    }
+
+    public int selected() {
+        return section;
+    }
+
+    public int sections() {
+        return sections.length;
+    }
+
+    // NOTE: a metric may begin and end several times in a frame, its time is the total
+    public void begin(final int metric) {
+        started[metric] = System.nanoTime();
+    }
+
+    public void end(final int metric) {
+        frame[metric] += System.nanoTime() - started[metric];
+    }
+
+    public void count(final int metric, final long n) {
+        frame[metric] += n;
+    }
+
+    // Records the frame's totals, and starts the next frame from nothing
+    public void endFrame() {
+        final Histogram histograms[] = sections[section];
+        for (int i = 0; i < frame.length; i++) {
+            histograms[i].record(frame[i]);
+            frame[i] = 0;
+        }
+    }
+
+    // Histogram of metric in section s, or null when nothing has been sent to s
+    public Histogram histogram(final int s, final int metric) {
+        final Histogram histograms[] = sections[s];
+        return histograms != null ? histograms[metric] : null;
+    }
+
+    public String name(final int metric) {
+        return names[metric];
+    }
+
+    public boolean isTimed(final int metric) {
+        return metric < timed;
+    }
+
+    // Writes every section as CSV, a row per metric (times in ns)
+    public void writeCsv(final Writer out) throws IOException {
+        out.write("section,metric,unit,frames,mean,p50,p95,p99,max\n");
+        for (int s = 0; s < sections.length; s++) {
+            for (int i = 0; i < names.length; i++) {
+                final Histogram h = histogram(s, i);
+                if (h == null || h.count() == 0) continue;
+
+                out.write(s + "," + names[i] + "," + (isTimed(i) ? "ns" : "count") + "," + h.count()
+                        + "," + Math.round(h.mean()) + "," + h.percentile(0.50) + "," + h.percentile(0.95)
+                        + "," + h.percentile(0.99) + "," + h.max() + "\n");
+            }
+        }
+        out.flush();
+    }
+}
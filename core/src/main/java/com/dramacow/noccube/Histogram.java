@@ -0,0 +1,74 @@
+package com.dramacow.noccube;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Counts of non-negative values, in buckets each within 1/32 of the values in them, so percentiles
+// come out close whatever the range (nanoseconds or a handful of draw calls) in a fixed size.
+// NOTE: only one thread may record, though any may read without locking. Each count is published
+//       (lazySet) before the total, so a read while recording is at most a value or so behind.
+public final class Histogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int HALF = 1 << (SUB_BITS - 1); // Buckets per power of two (below 2*HALF, one per value)
+    private static final int BUCKETS = (64 - SUB_BITS + 2) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+
+        final int i = index(value);
+        counts.lazySet(i, counts.get(i) + 1);
+        sum.lazySet(sum.get() + value);
+        if (value > max.get()) max.lazySet(value);
+        total.lazySet(total.get() + 1);
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    public double mean() {
+        final long n = total.get();
+        return n == 0 ? 0.0 : (double) sum.get() / n;
+    }
+
+    // Value at or below which fraction p (0 to 1) of everything recorded falls, rounded up to the
+    // top of its bucket (though never past the largest value recorded)
+    public long percentile(final double p) {
+        final long n = total.get();
+        if (n == 0) return 0;
+
+        final long rank = Math.max(1, (long) Math.ceil(p * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(highest(i), max.get());
+        }
+        return max.get();
+    }
+
+    // Bucket of value, so that value >> shift keeps the top SUB_BITS bits of it
+    static int index(final long value) {
+        if (value < 2*HALF) return (int) value;
+
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+        return shift * HALF + (int) (value >> shift);
+    }
+
+    // Largest value in bucket i
+    static long highest(final int i) {
+        if (i < 2*HALF) return i;
+
+        final int shift = i / HALF - 1;
+        return ((long) (i - shift * HALF + 1) << shift) - 1; // NOTE: the very last bucket wraps round to Long.MAX_VALUE
+    }
+}
@@ -0,0 +1,50 @@
+package com.dramacow.noccube;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// Single producer, single consumer ring buffer of preallocated touch samples, for handing input
+// from the UI thread to the GL thread without locking (or allocating per sample)
+public final class InputQueue {
+
+    // A raw touch sample, as the view saw it
+    public static final class Event {
+        public int action;          // MotionEvent action
+        public float x, y;          // Touch co-ordinates (pixels)
+        public float width, height; // View dimensions at the time
+    }
+
+    private final Event events[];
+
+    // NOTE: head is only written by the consumer and tail only by the producer. Each is published
+    //       (lazySet) after the event it covers has been written or read, so the other side never
+    //       sees a half written event.
+    private final AtomicLong head = new AtomicLong(); // Next event to take
+    private final AtomicLong tail = new AtomicLong(); // Next event to fill
+
+    public InputQueue(final int capacity) {
+        events = new Event[capacity > 0 ? capacity : 1];
+        for (int i = 0; i < events.length; i++) events[i] = new Event();
+    }
+
+    // Producer: the event to fill in before calling publish, or null when full
+    public Event claim() {
+        final long t = tail.get();
+        if (t - head.get() == events.length) return null;
+        return events[(int) (t % events.length)];
+    }
+
+    public void publish() {
+        tail.lazySet(tail.get() + 1);
+    }
+
+    // Consumer: the oldest published event, to be handed back with release, or null when empty
+    public Event peek() {
+        final long h = head.get();
+        if (h == tail.get()) return null;
+        return events[(int) (h % events.length)];
+    }
+
+    public void release() {
+        head.lazySet(head.get() + 1);
+    }
+}
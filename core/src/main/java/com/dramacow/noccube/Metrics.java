@@ -0,0 +1,74 @@
+package com.dramacow.noccube;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Frame metrics, always on (a few System.nanoTime calls a frame), e.g.
+//
+//     Metrics.begin(Metrics.SUBMIT);
+//     batch.draw(rvpMatrix, seperation, alpha);
+//     Metrics.end(Metrics.SUBMIT);
+//
+// Frames are recorded in a section per noccube size (0 for the menu), see select. Whoever knows the
+// largest size calls setMaxSection before the first frame.
+public final class Metrics {
+
+    // Phases (ns per frame)
+    public static final int FRAME    = 0; // CPU time of the whole frame
+    public static final int INPUT    = 1; // Touch handling, including picking
+    public static final int UPDATE   = 2; // Animation steps, including placing cubes (setCubePosition)
+    public static final int MATRICES = 3; // Matrices set up for drawing
+    public static final int SUBMIT   = 4; // GL calls drawing everything
+    public static final int UPLOAD   = 5; // Textures uploaded while loading
+    private static final int PHASES  = 6;
+
+    // Counters (per frame)
+    public static final int DRAW_CALLS      = 6;
+    public static final int TEXTURE_BINDS   = 7;
+    public static final int UNIFORM_UPLOADS = 8;
+
+    private static final String NAMES[] = {
+        "frame", "input", "update", "matrices", "submit", "upload",
+        "draw_calls", "texture_binds", "uniform_uploads"
+    };
+    public static final int COUNT = NAMES.length;
+
+    private static final int SECTIONS = 32; // Until told otherwise
+    private static volatile FrameMetrics metrics = new FrameMetrics(NAMES, PHASES, SECTIONS);
+
+    private Metrics() {}
+
+    // Makes room for sections 0 to max (forgetting anything recorded so far, if that changes)
+    public static void setMaxSection(final int max) {
+        if (max + 1 != metrics.sections()) metrics = new FrameMetrics(NAMES, PHASES, max + 1);
+    }
+
+    public static void select(final int section) {
+        metrics.select(section);
+    }
+
+    public static void begin(final int phase) {
+        metrics.begin(phase);
+    }
+
+    public static void end(final int phase) {
+        metrics.end(phase);
+    }
+
+    public static void count(final int counter, final long n) {
+        metrics.count(counter, n);
+    }
+
+    public static void endFrame() {
+        metrics.endFrame();
+    }
+
+    public static FrameMetrics get() {
+        return metrics;
+    }
+
+    // Writes everything recorded so far as CSV (section being the noccube size)
+    public static void dump(final Writer out) throws IOException {
+        metrics.writeCsv(out);
+    }
+}
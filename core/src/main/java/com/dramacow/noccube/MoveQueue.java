@@ -0,0 +1,59 @@
+package com.dramacow.noccube;
+
+// Bounded first-in first-out queue of slice moves, preallocated so queueing a move allocates nothing
+public final class MoveQueue {
+
+    // Each move is packed as: axis | slice << 2 | clockwise << 31
+    private final int moves[];
+    private int head = 0; // Index of the oldest move
+    private int size = 0;
+
+    public MoveQueue(final int capacity) {
+        moves = new int[capacity > 0 ? capacity : 1];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == moves.length;
+    }
+
+    // Returns false (and queues nothing) when full
+    public boolean add(final int axis, final int slice, final boolean clockwise) {
+        if (size == moves.length) return false;
+
+        moves[(head + size++) % moves.length] = axis | slice << 2 | (clockwise ? 1 << 31 : 0);
+        return true;
+    }
+
+    // The oldest move, which must be there
+    public int axis() {
+        return moves[head] & 3;
+    }
+
+    public int slice() {
+        return (moves[head] & 0x7FFFFFFF) >> 2;
+    }
+
+    public boolean clockwise() {
+        return moves[head] < 0;
+    }
+
+    public void remove() {
+        if (size == 0) return;
+
+        head = (head + 1) % moves.length;
+        size--;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+}
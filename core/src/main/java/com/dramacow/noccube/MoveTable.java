@@ -0,0 +1,120 @@
+package com.dramacow.noccube;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Precompiled slice rotations for one cube size, shared between every NOCCube of that size
+public final class MoveTable {
+
+    // Number of cube sizes kept around, least recently used sizes are dropped first
+    private static final int CACHE_SIZE = 4;
+
+    // Most a table's compiled moves may take up (d*d ints each), past which the move compiled
+    // longest ago is dropped (and compiled again if made again). So the cache never holds more than
+    // CACHE_SIZE times this, however large the noccubes.
+    static final int MAX_TABLE_BYTES = 4 << 20;
+
+    private static final Map<Integer, MoveTable> cache =
+        new LinkedHashMap<Integer, MoveTable>(CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Integer, MoveTable> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+
+    public final int d;
+
+    // Indexed [2*(d*axis + slice) + (clockwise ? 0 : 1)], compiled on first use
+    private final Move moves[];
+
+    // Indices of the compiled moves, oldest first (a ring of up to capacity)
+    private final int compiled[];
+    private int oldest = 0, count = 0;
+
+    public static synchronized MoveTable forSize(final int d) {
+        MoveTable table = cache.get(d);
+        if (table == null) {
+            table = new MoveTable(d);
+            cache.put(d, table);
+        }
+        return table;
+    }
+
+    private MoveTable(final int d) {
+        this.d = d;
+        this.moves = new Move[6*d];
+        this.compiled = new int[Math.max(1, Math.min(6*d, MAX_TABLE_BYTES / (4*d*d)))];
+    }
+
+    // Number of moves compiled at the moment
+    public synchronized int compiledCount() {
+        return count;
+    }
+
+    public Move get(final int axis, final int slice, final boolean clockwise) {
+        final int i = 2*(d*axis + slice) + (clockwise ? 0 : 1);
+
+        // NOTE: a move is immutable once compiled, so reading one without locking is safe. A
+        //       dropped move stays usable by whoever already has it.
+        Move move = moves[i];
+        if (move == null) move = compile(i, axis, slice, clockwise);
+        return move;
+    }
+
+    private synchronized Move compile(final int i, final int axis, final int slice, final boolean clockwise) {
+        if (moves[i] != null) return moves[i]; // Compiled while waiting
+
+        if (count == compiled.length) {
+            moves[compiled[oldest]] = null;
+            oldest = (oldest + 1) % compiled.length;
+            count--;
+        }
+
+        final Move move = new Move(d, axis, slice, clockwise);
+        compiled[(oldest + count++) % compiled.length] = i;
+        moves[i] = move;
+        return move;
+    }
+
+    // Applying a move sends the cube at source[a + d*b] to origin + strideA*a + strideB*b (the slice's
+    // own positions in order, so the same for either direction and not worth keeping), turning its
+    // orientation by turn
+    public static final class Move {
+        public final int axis;
+        public final int slice;
+        public final boolean clockwise;
+
+        public final int source[];
+        public final int origin, strideA, strideB;
+        public final int turn; // Orientation transition column (see Orientation.turn)
+
+        private Move(final int d, final int axis, final int slice, final boolean clockwise) {
+            this.axis = axis;
+            this.slice = slice;
+            this.clockwise = clockwise;
+            this.turn = Orientation.turnCode(axis, clockwise);
+
+            source = new int[d*d];
+
+            // The slice is spanned by two axes a and b (with a the lower of the two), which step
+            // through the flattened cube [x + d*y + d*d*z] with strides sa and sb respectively
+            strideA = axis == NOCCube.AXIS_X ? d : 1;
+            strideB = axis == NOCCube.AXIS_Z ? d : d*d;
+            origin = slice * (axis == NOCCube.AXIS_X ? 1 : axis == NOCCube.AXIS_Y ? d : d*d);
+            final int sa = strideA, sb = strideB;
+
+            // For x and z, a clockwise turn moves the cube at (b, (d - 1) - a) to (a, b). The y-axis
+            // turns the opposite way with respect to its plane (x, z), so directions swap.
+            final boolean forwards = (axis == NOCCube.AXIS_Y) != clockwise;
+
+            for (int b = 0; b < d; b++) {
+                for (int a = 0; a < d; a++) {
+                    final int srcA = forwards ? b : (d - 1) - b;
+                    final int srcB = forwards ? (d - 1) - a : a;
+
+                    source[a + d*b] = origin + sa*srcA + sb*srcB;
+                }
+            }
+        }
+    }
+}
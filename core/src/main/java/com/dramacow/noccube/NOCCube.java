@@ -0,0 +1,127 @@
+package com.dramacow.noccube;
+
+import java.util.Random;
+
+public class NOCCube {
+
+    public static final int AXIS_X = 0;
+    public static final int AXIS_Y = 1;
+    public static final int AXIS_Z = 2;
+
+    public final int d; // Cube dimensions
+
+    // State of each cube, flattened as [x + d*y + d*d*z]
+    private final byte orientations[];  // Index into the 24 cube rotations (see Orientation)
+    private final int displayHandles[]; // Which graphic currently sits at each position
+
+    // Number of cubes in each orientation, kept up to date as slices are rotated
+    private final int orientationCounts[] = new int[Orientation.COUNT];
+
+    // Slice permutations for this size of cube
+    private final MoveTable moves;
+
+    // Scratch space for the slice being rotated
+    private final byte sliceOrientations[];
+    private final int sliceHandles[];
+    private final int movedHandles[]; // See getMovedHandles
+
+    public NOCCube(final int d) {
+        this.d = d > 1 ? d : 2;
+
+        orientations = new byte[d*d*d];
+        displayHandles = new int[d*d*d];
+        for (int i = 0; i < displayHandles.length; i++) {
+            orientations[i] = Orientation.IDENTITY;
+            displayHandles[i] = i;
+        }
+        orientationCounts[Orientation.IDENTITY] = d*d*d;
+
+        moves = MoveTable.forSize(d);
+        sliceOrientations = new byte[d*d];
+        sliceHandles = new int[d*d];
+        movedHandles = new int[d*d];
+    }
+
+    public int getOrientation(final int x, final int y, final int z) {
+        return orientations[x + d*y + d*d*z];
+    }
+
+    public int getDisplayHandle(final int x, final int y, final int z) {
+        return displayHandles[x + d*y + d*d*z];
+    }
+
+    // Copies the state of another noccube of the same size
+    public void set(final NOCCube other) {
+        if (other.d != d) throw new IllegalArgumentException("Error noccube sizes differ: " + other.d + " != " + d);
+
+        System.arraycopy(other.orientations, 0, orientations, 0, orientations.length);
+        System.arraycopy(other.displayHandles, 0, displayHandles, 0, displayHandles.length);
+        System.arraycopy(other.orientationCounts, 0, orientationCounts, 0, orientationCounts.length);
+    }
+
+    public void scramble() {
+        Random rand = new Random();
+        for (int i = 0; i < 1 /*d*d*d*/; i++) {
+            this.rotate(
+                rand.nextInt(3),   // axis
+                rand.nextInt(d),   // slice
+                rand.nextBoolean() // direction (clockwise)
+            );
+        }
+    }
+
+    // Returns whether the rotation was valid (and so was made)
+    public boolean rotate(final int axis, final int slice, final boolean clockwise) {
+        // Validate rotation input
+        if (axis < 0 || axis >= 3 || slice < 0 || slice >= d) return false;
+
+        final MoveTable.Move move = moves.get(axis, slice, clockwise);
+        final int source[] = move.source;
+
+        if (Trace.LEVEL >= Trace.INFO) Trace.instant(Trace.MOVE, move.turn, slice);
+
+        // NOTE: only the d*d cubes of the chosen slice move, so the slice is gathered into
+        //       scratch buffers and scattered back to its new positions (the slice's own
+        //       positions, in order, so stepped through rather than looked up).
+        for (int b = 0, k = 0; b < d; b++) {
+            for (int a = 0; a < d; a++, k++) {
+                sliceOrientations[k] = orientations[source[k]];
+                sliceHandles[k] = displayHandles[source[k]];
+                movedHandles[k] = displayHandles[move.origin + move.strideA*a + move.strideB*b];
+            }
+        }
+
+        for (int b = 0, k = 0; b < d; b++) {
+            for (int a = 0; a < d; a++, k++) {
+                final int destination = move.origin + move.strideA*a + move.strideB*b;
+                final int orientation = Orientation.turn(sliceOrientations[k], move.turn);
+
+                orientationCounts[sliceOrientations[k]]--;
+                orientationCounts[orientation]++;
+
+                orientations[destination] = (byte) orientation;
+                displayHandles[destination] = sliceHandles[k];
+            }
+        }
+
+        return true;
+    }
+
+    // Handles of the cubes that sat in the slice before the last valid rotation, in slice order.
+    // NOTE: reused by every rotation, so copy it to keep it.
+    public int[] getMovedHandles() {
+        return movedHandles;
+    }
+
+    public boolean isSolved() {
+        // NOTE: the success condition is NOT determined by the absolute position of each cube.
+        //       Instead, success is achieved when all cubes are oriented in the same direction,
+        //       irrespective of whether this direction is the same as the starting direction.
+        //       This means success can occur when the whole cube is oriented in any direction,
+        //       so long as the relative position and orientation of the individual cubes form the globe.
+        //       Achieved by checking whether a single orientation accounts for every cube, and since
+        //       that would have to include the first cube, only its orientation needs checking.
+
+        return orientationCounts[orientations[0]] == orientations.length;
+    }
+}
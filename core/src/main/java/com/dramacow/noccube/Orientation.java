@@ -0,0 +1,97 @@
+package com.dramacow.noccube;
+
+import java.util.Arrays;
+
+// The 24 proper rotations of a cube, each identified by a byte sized index
+public final class Orientation {
+
+    public static final int COUNT = 24;
+    public static final int IDENTITY = 0;
+
+    // 3x3 rotation matrix of each orientation (rows of the array are columns of the matrix)
+    private static final int MATRICES[][] = new int[COUNT][];
+
+    // Orientation reached by turning each orientation about axis a, column 2*a (clockwise) or 2*a + 1
+    private static final byte TRANSITIONS[][] = new byte[COUNT][6];
+
+    static {
+        // Breadth first search over the group generated by the six quarter turns
+        MATRICES[IDENTITY] = new int[] {1,0,0,  // [ 0 1 2 ]
+                                        0,1,0,  // [ 3 4 5 ]
+                                        0,0,1}; // [ 6 7 8 ]
+        int count = 1;
+
+        for (int o = 0; o < count; o++) {
+            for (int turn = 0; turn < 6; turn++) {
+                final int R[] = rotate(MATRICES[o], turn / 2, turn % 2 == 0);
+
+                int next = 0;
+                while (next < count && !Arrays.equals(MATRICES[next], R)) next++;
+                if (next == count) MATRICES[count++] = R;
+
+                TRANSITIONS[o][turn] = (byte) next;
+            }
+        }
+    }
+
+    private Orientation() {}
+
+    public static int turn(final int orientation, final int axis, final boolean clockwise) {
+        return TRANSITIONS[orientation][turnCode(axis, clockwise)];
+    }
+
+    public static int turn(final int orientation, final int turnCode) {
+        return TRANSITIONS[orientation][turnCode];
+    }
+
+    // Column of the transition table for a quarter turn about the given axis
+    public static int turnCode(final int axis, final boolean clockwise) {
+        return 2*axis + (clockwise ? 0 : 1);
+    }
+
+    // NOTE: the returned array is shared, do NOT modify it
+    public static int[] matrix(final int orientation) {
+        return MATRICES[orientation];
+    }
+
+    // =========================================================
+    // ==| NOTE: rows of the array are columns of the matrix |==
+    // =========================================================
+
+    /* x clockwise = [ 1  0  0 ] , x anti-clockwise = [ 1  0  0 ]
+                     [ 0  0 -1 ]                      [ 0  0  1 ]
+                     [ 0  1  0 ]                      [ 0 -1  0 ]
+
+       y clockwise = [ 0  0  1 ] , y anti-clockwise = [ 0  0 -1 ]
+                     [ 0  1  0 ]                      [ 0  1  0 ]
+                     [-1  0  0 ]                      [ 1  0  0 ]
+
+       z clockwise = [ 0 -1  0 ] , z anti-clockwise = [ 0  1  0 ]
+                     [ 1  0  0 ]                      [-1  0  0 ]
+                     [ 0  0  1 ]                      [ 0  0  1 ] */
+    private static int[] rotate(final int R[], final int axis, final boolean clockwise) {
+        final int c = clockwise ? 1 : -1;
+        switch (axis) {
+            case NOCCube.AXIS_X:
+                return new int[] {
+                    R[0], -c*R[2], c*R[1],
+                    R[3], -c*R[5], c*R[4],
+                    R[6], -c*R[8], c*R[7]
+                };
+
+            case NOCCube.AXIS_Y:
+                return new int[] {
+                    c*R[2], R[1], -c*R[0],
+                    c*R[5], R[4], -c*R[3],
+                    c*R[8], R[7], -c*R[6]
+                };
+
+            default:
+                return new int[] {
+                    -c*R[1], c*R[0], R[2],
+                    -c*R[4], c*R[3], R[5],
+                    -c*R[7], c*R[6], R[8]
+                };
+        }
+    }
+}
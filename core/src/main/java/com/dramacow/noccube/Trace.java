@@ -0,0 +1,48 @@
+package com.dramacow.noccube;
+
+import java.io.IOException;
+import java.io.Writer;
+
+// Tracing switched by a compile time constant, guard every call with its level, e.g.
+//
+//     if (Trace.LEVEL >= Trace.INFO) Trace.instant(Trace.MOVE, axis, slice);
+//
+// Since LEVEL is a constant, disabled calls (and their arguments) are removed by the compiler.
+public final class Trace {
+
+    // Levels
+    public static final int OFF     = 0;
+    public static final int INFO    = 1; // Moves and animations
+    public static final int VERBOSE = 2; // Every frame
+
+    public static final int LEVEL = OFF;
+
+    // Events (arguments noted alongside)
+    public static final int MOVE      = 0; // turn code (see Orientation.turnCode), slice
+    public static final int ANIMATION = 1; // animation state, axis (if rotating)
+    public static final int SOLVED    = 2; // -, -
+    public static final int FRAME     = 3; // -, -
+    private static final String NAMES[] = {"move", "animation", "solved", "frame"};
+
+    private static final int CAPACITY = 8192;
+    private static final TraceBuffer buffer = new TraceBuffer(LEVEL > OFF ? CAPACITY : 0, NAMES);
+
+    private Trace() {}
+
+    public static void instant(final int event, final long arg0, final long arg1) {
+        buffer.record(event, TraceBuffer.INSTANT, arg0, arg1);
+    }
+
+    public static void begin(final int event, final long arg0, final long arg1) {
+        buffer.record(event, TraceBuffer.BEGIN, arg0, arg1);
+    }
+
+    public static void end(final int event, final long arg0, final long arg1) {
+        buffer.record(event, TraceBuffer.END, arg0, arg1);
+    }
+
+    // Writes everything recorded so far as Chrome trace-event JSON (load in chrome://tracing)
+    public static void dump(final Writer out) throws IOException {
+        buffer.dump(out);
+    }
+}
@@ -0,0 +1,81 @@
+package com.dramacow.noccube;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Preallocated ring buffer of fixed size binary trace events, dumpable as Chrome trace-event JSON
+public final class TraceBuffer {
+
+    // Chrome trace-event phases
+    public static final int INSTANT = 0;
+    public static final int BEGIN = 1;
+    public static final int END = 2;
+    private static final String PHASES[] = {"i", "B", "E"};
+
+    // Each event is stored as: time (ns), name << 8 | phase, thread id, arg0, arg1
+    private static final int EVENT_SIZE = 5;
+
+    private final String names[];
+    private final long events[];
+    private final int capacity;
+    private final AtomicLong count = new AtomicLong(); // Total events ever recorded
+
+    public TraceBuffer(final int capacity, final String names[]) {
+        this.capacity = capacity;
+        this.names = names;
+        this.events = new long[EVENT_SIZE * capacity];
+    }
+
+    public void record(final int name, final int phase, final long arg0, final long arg1) {
+        if (capacity == 0) return;
+
+        final int i = EVENT_SIZE * (int) (count.getAndIncrement() % capacity);
+        events[i]     = System.nanoTime();
+        events[i + 1] = (name << 8) | phase;
+        events[i + 2] = Thread.currentThread().getId();
+        events[i + 3] = arg0;
+        events[i + 4] = arg1;
+    }
+
+    // Number of events currently held (older events are overwritten once the buffer is full)
+    public int size() {
+        return (int) Math.min(count.get(), capacity);
+    }
+
+    public void clear() {
+        count.set(0);
+    }
+
+    // NOTE: meant for debugging once recording has stopped, events recorded
+    //       during the dump may appear half written.
+    public void dump(final Writer out) throws IOException {
+        final long total = count.get();
+        final int size = (int) Math.min(total, capacity);
+
+        out.write("{\"traceEvents\":[");
+        for (int n = 0; n < size; n++) {
+            final int i = EVENT_SIZE * (int) ((total - size + n) % capacity);
+            final int name = (int) (events[i + 1] >> 8);
+            final int phase = (int) (events[i + 1] & 0xFF);
+
+            if (n > 0) out.write(',');
+            out.write("\n{\"name\":\"");
+            out.write(name < names.length ? names[name] : Integer.toString(name));
+            out.write("\",\"ph\":\"");
+            out.write(PHASES[phase]);
+            out.write("\",\"ts\":");
+            out.write(Double.toString(events[i] / 1000.0)); // Chrome expects microseconds
+            out.write(",\"pid\":0,\"tid\":");
+            out.write(Long.toString(events[i + 2]));
+            if (phase == INSTANT) out.write(",\"s\":\"t\"");
+            out.write(",\"args\":{\"a\":");
+            out.write(Long.toString(events[i + 3]));
+            out.write(",\"b\":");
+            out.write(Long.toString(events[i + 4]));
+            out.write("}}");
+        }
+        out.write("\n]}\n");
+        out.flush();
+    }
+}
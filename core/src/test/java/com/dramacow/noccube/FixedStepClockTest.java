@@ -0,0 +1,48 @@
+package com.dramacow.noccube;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FixedStepClockTest {
+
+    private static final long STEP = 8000000L; // 8ms
+
+    // However the time is split into frames, the same number of steps is taken
+    @Test
+    public void steps_dependOnlyOnTimePassed() {
+        final long frames[] = { 33333333L, 16666667L, 8333333L, 6944444L }; // 30, 60, 120 and 144Hz
+
+        for (long frame : frames) {
+            final FixedStepClock clock = new FixedStepClock(STEP, 250000000L);
+            clock.reset(0);
+
+            long steps = 0, now = 0;
+            while (now + frame <= 1000000000L) {
+                now += frame;
+                steps += clock.advance(now);
+                assertTrue(clock.interpolation() >= 0.0f && clock.interpolation() < 1.0f);
+            }
+            assertEquals(now / STEP, steps);
+        }
+    }
+
+    @Test
+    public void longFrames_areCutShort() {
+        final FixedStepClock clock = new FixedStepClock(STEP, 5 * STEP);
+        clock.reset(0);
+
+        assertEquals(5, clock.advance(60 * STEP));
+        assertEquals(0.0f, clock.interpolation(), 0.0f);
+    }
+
+    // nanoTime may be negative, which must not read as the clock never having started
+    @Test
+    public void negativeTimes_stillStep() {
+        final FixedStepClock clock = new FixedStepClock(STEP, 250000000L);
+        final long start = -1000000000L;
+
+        assertEquals(0, clock.advance(start));
+        assertEquals(3, clock.advance(start + 3 * STEP));
+    }
+}
@@ -0,0 +1,77 @@
+package com.dramacow.noccube;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class FrameMetricsTest {
+
+    @Test
+    public void percentiles_areWithinABucket() {
+        final Histogram h = new Histogram();
+        for (long v = 1; v <= 100000; v++) h.record(v * 1000); // 1us to 100ms
+
+        final double ps[] = { 0.50, 0.95, 0.99 };
+        for (double p : ps) {
+            final double exact = p * 100000 * 1000;
+            final long value = h.percentile(p);
+            assertTrue(value >= exact && value <= exact * (1.0 + 1.0/32));
+        }
+        assertEquals(100000000L, h.percentile(1.0));
+        assertEquals(100000000L, h.max());
+        assertEquals(100000, h.count());
+    }
+
+    @Test
+    public void smallValues_areExact() {
+        final Histogram h = new Histogram();
+        h.record(3);
+        h.record(3);
+        h.record(12);
+
+        assertEquals(3, h.percentile(0.5));
+        assertEquals(12, h.percentile(0.99));
+        for (int i = 1; i <= Histogram.index(Long.MAX_VALUE); i++) assertTrue(Histogram.highest(i) > Histogram.highest(i - 1));
+        assertEquals(Long.MAX_VALUE, Histogram.highest(Histogram.index(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void frames_goToTheSelectedSection() throws Exception {
+        final FrameMetrics metrics = new FrameMetrics(new String[] {"frame", "draw_calls"}, 1, 4);
+        metrics.count(1, 5);
+        metrics.count(1, 2);
+        metrics.endFrame();
+        metrics.select(3);
+        metrics.count(1, 40);
+        metrics.endFrame();
+        metrics.endFrame();
+
+        assertEquals(1, metrics.histogram(0, 1).count());
+        assertEquals(7, metrics.histogram(0, 1).max());
+        assertEquals(2, metrics.histogram(3, 1).count());
+        assertEquals(0, metrics.histogram(3, 1).percentile(0.5)); // Nothing counted in the last frame
+        assertNull(metrics.histogram(2, 1));
+
+        final StringWriter out = new StringWriter();
+        metrics.writeCsv(out);
+        final String csv = out.toString();
+        assertTrue(csv.startsWith("section,metric,unit,frames,mean,p50,p95,p99,max\n"));
+        assertTrue(csv.contains("\n0,draw_calls,count,1,7,7,7,7,7\n"));
+        assertTrue(csv.contains("\n3,frame,ns,2,"));
+    }
+
+    // Sizes past the original 32 sections (the menu allows up to FaceGridRenderer.MAX_D)
+    @Test
+    public void largeSizes_haveTheirOwnSections() {
+        Metrics.setMaxSection(128);
+        Metrics.select(128);
+        Metrics.count(Metrics.DRAW_CALLS, 3);
+        Metrics.endFrame();
+        Metrics.select(0);
+
+        assertEquals(129, Metrics.get().sections());
+        assertEquals(3, Metrics.get().histogram(128, Metrics.DRAW_CALLS).max());
+    }
+}
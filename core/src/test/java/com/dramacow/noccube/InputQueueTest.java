@@ -0,0 +1,55 @@
+package com.dramacow.noccube;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class InputQueueTest {
+
+    @Test
+    public void claim_refusesWhenFull() {
+        final InputQueue queue = new InputQueue(2);
+        for (int i = 0; i < 2; i++) {
+            queue.claim().action = i;
+            queue.publish();
+        }
+        assertNull(queue.claim());
+
+        assertEquals(0, queue.peek().action);
+        queue.release();
+        assertNotNull(queue.claim());
+    }
+
+    // Every event published on one thread arrives whole, and in order, on another
+    @Test
+    public void events_crossThreadsInOrder() throws Exception {
+        final int count = 200000;
+        final InputQueue queue = new InputQueue(16);
+
+        final Thread producer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < count; i++) {
+                    InputQueue.Event e;
+                    while ((e = queue.claim()) == null) Thread.yield();
+                    e.action = i;
+                    e.x = i;
+                    e.y = -i;
+                    queue.publish();
+                }
+            }
+        });
+        producer.start();
+
+        for (int i = 0; i < count; i++) {
+            InputQueue.Event e;
+            while ((e = queue.peek()) == null) Thread.yield();
+            assertEquals(i, e.action);
+            assertEquals(i, e.x, 0.0f);
+            assertEquals(-i, e.y, 0.0f);
+            queue.release();
+        }
+        producer.join();
+        assertNull(queue.peek());
+    }
+}
@@ -0,0 +1,42 @@
+package com.dramacow.noccube;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MoveQueueTest {
+
+    @Test
+    public void moves_comeOutInOrder() {
+        final MoveQueue queue = new MoveQueue(3);
+
+        // Wrapping round the end of the buffer
+        for (int i = 0; i < 10; i++) {
+            assertTrue(queue.add(i % 3, 1000 + i, i % 2 == 0));
+            assertTrue(queue.add(2, i, false));
+
+            assertEquals(i % 3, queue.axis());
+            assertEquals(1000 + i, queue.slice());
+            assertEquals(i % 2 == 0, queue.clockwise());
+            queue.remove();
+
+            assertEquals(2, queue.axis());
+            assertEquals(i, queue.slice());
+            assertFalse(queue.clockwise());
+            queue.remove();
+            assertTrue(queue.isEmpty());
+        }
+    }
+
+    @Test
+    public void add_refusesWhenFull() {
+        final MoveQueue queue = new MoveQueue(2);
+        assertTrue(queue.add(0, 0, true));
+        assertTrue(queue.add(1, 1, true));
+
+        assertTrue(queue.isFull());
+        assertFalse(queue.add(2, 2, true));
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.axis());
+    }
+}
@@ -0,0 +1,151 @@
+package com.dramacow.noccube;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NOCCubeTest {
+
+    // Handles and orientations of every position, for comparing whole cube states
+    private static int[] state(final NOCCube cube) {
+        final int d = cube.d;
+        final int state[] = new int[2*d*d*d];
+        for (int z = 0; z < d; z++) {
+            for (int y = 0; y < d; y++) {
+                for (int x = 0; x < d; x++) {
+                    final int i = x + d*y + d*d*z;
+                    state[2*i] = cube.getDisplayHandle(x, y, z);
+                    state[2*i + 1] = cube.getOrientation(x, y, z);
+                }
+            }
+        }
+        return state;
+    }
+
+    @Test
+    public void newCube_isSolved() throws Exception {
+        assertTrue(new NOCCube(3).isSolved());
+    }
+
+    @Test
+    public void singleTurn_isNotSolved() throws Exception {
+        final NOCCube cube = new NOCCube(3);
+        cube.rotate(NOCCube.AXIS_X, 1, true);
+        assertFalse(cube.isSolved());
+    }
+
+    @Test
+    public void turningEverySlice_isSolved() throws Exception {
+        // Turning every slice the same way rotates the whole cube, which counts as solved
+        for (int axis = 0; axis < 3; axis++) {
+            final NOCCube cube = new NOCCube(4);
+            for (int slice = 0; slice < cube.d; slice++) {
+                cube.rotate(axis, slice, true);
+                if (slice < cube.d - 1) assertFalse(cube.isSolved());
+            }
+            assertTrue(cube.isSolved());
+            assertFalse(Arrays.equals(state(new NOCCube(4)), state(cube)));
+        }
+    }
+
+    @Test
+    public void fourQuarterTurns_restoreCube() throws Exception {
+        final NOCCube cube = new NOCCube(3);
+        final int initial[] = state(cube);
+
+        for (int axis = 0; axis < 3; axis++) {
+            for (int slice = 0; slice < cube.d; slice++) {
+                for (int i = 0; i < 4; i++) {
+                    cube.rotate(axis, slice, false);
+                }
+                assertArrayEquals(initial, state(cube));
+            }
+        }
+    }
+
+    @Test
+    public void undoingMoves_restoresCube() throws Exception {
+        final NOCCube cube = new NOCCube(5);
+        final int initial[] = state(cube);
+
+        final Random rand = new Random(42);
+        final int moves[][] = new int[64][3];
+        for (int[] move : moves) {
+            move[0] = rand.nextInt(3);
+            move[1] = rand.nextInt(cube.d);
+            move[2] = rand.nextInt(2);
+            cube.rotate(move[0], move[1], move[2] == 1);
+        }
+        assertFalse(cube.isSolved());
+
+        for (int i = moves.length - 1; i >= 0; i--) {
+            cube.rotate(moves[i][0], moves[i][1], moves[i][2] != 1);
+        }
+        assertArrayEquals(initial, state(cube));
+        assertTrue(cube.isSolved());
+    }
+
+    @Test
+    public void rotate_leavesMovedHandles() throws Exception {
+        final NOCCube cube = new NOCCube(2);
+
+        // z = 1 slice holds handles x + 2*y + 4
+        assertTrue(cube.rotate(NOCCube.AXIS_Z, 1, true));
+        assertArrayEquals(new int[] {4, 5, 6, 7}, cube.getMovedHandles());
+    }
+
+    @Test
+    public void rotate_invalidInput_isIgnored() throws Exception {
+        final NOCCube cube = new NOCCube(2);
+        final int initial[] = state(cube);
+
+        assertFalse(cube.rotate(3, 0, true));
+        assertFalse(cube.rotate(NOCCube.AXIS_X, 2, true));
+        assertArrayEquals(initial, state(cube));
+    }
+
+    @Test
+    public void orientations_formRotationGroup() throws Exception {
+        for (int o = 0; o < Orientation.COUNT; o++) {
+            for (int p = o + 1; p < Orientation.COUNT; p++) {
+                assertFalse(Arrays.equals(Orientation.matrix(o), Orientation.matrix(p)));
+            }
+            for (int axis = 0; axis < 3; axis++) {
+                // Opposite turns cancel out
+                assertEquals(o, Orientation.turn(Orientation.turn(o, axis, true), axis, false));
+            }
+        }
+    }
+
+    // Past what a table may hold, the oldest moves are dropped and compiled again when needed
+    @Test
+    public void largeCubes_keepTheirMoveTablesBounded() throws Exception {
+        final int d = 64; // 384 moves of 16KB, more than fit
+        final NOCCube cube = new NOCCube(d);
+        final MoveTable table = MoveTable.forSize(d);
+
+        for (int axis = 0; axis < 3; axis++) {
+            for (int slice = 0; slice < d; slice++) {
+                cube.rotate(axis, slice, true);
+                cube.rotate(axis, slice, false);
+            }
+        }
+        for (int axis = 2; axis >= 0; axis--) {
+            for (int slice = d - 1; slice >= 0; slice--) {
+                cube.rotate(axis, slice, (slice & 1) == 0);
+            }
+        }
+        for (int axis = 0; axis < 3; axis++) {
+            for (int slice = 0; slice < d; slice++) {
+                cube.rotate(axis, slice, (slice & 1) != 0);
+            }
+        }
+
+        assertTrue(4L * d*d * table.compiledCount() <= MoveTable.MAX_TABLE_BYTES);
+        assertTrue(cube.isSolved());
+        for (int i = 0; i < d*d*d; i++) assertEquals(i, cube.getDisplayHandle(i % d, (i / d) % d, i / (d*d)));
+    }
+}
@@ -0,0 +1,53 @@
+package com.dramacow.noccube;
+
+import org.junit.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class TraceBufferTest {
+
+    private static String dump(final TraceBuffer buffer) throws Exception {
+        final StringWriter out = new StringWriter();
+        buffer.dump(out);
+        return out.toString();
+    }
+
+    @Test
+    public void dump_writesTraceEvents() throws Exception {
+        final TraceBuffer buffer = new TraceBuffer(4, new String[] {"move", "frame"});
+        buffer.record(0, TraceBuffer.INSTANT, 3, 7);
+        buffer.record(1, TraceBuffer.BEGIN, 0, 0);
+        buffer.record(1, TraceBuffer.END, 0, 0);
+
+        final String json = dump(buffer);
+        assertTrue(json.startsWith("{\"traceEvents\":["));
+        assertTrue(json.contains("\"name\":\"move\",\"ph\":\"i\""));
+        assertTrue(json.contains("\"args\":{\"a\":3,\"b\":7}"));
+        assertTrue(json.contains("\"name\":\"frame\",\"ph\":\"B\""));
+        assertTrue(json.contains("\"name\":\"frame\",\"ph\":\"E\""));
+    }
+
+    @Test
+    public void record_overwritesOldestEvents() throws Exception {
+        final TraceBuffer buffer = new TraceBuffer(2, new String[] {"a", "b", "c"});
+        buffer.record(0, TraceBuffer.INSTANT, 0, 0);
+        buffer.record(1, TraceBuffer.INSTANT, 0, 0);
+        buffer.record(2, TraceBuffer.INSTANT, 0, 0);
+
+        final String json = dump(buffer);
+        assertEquals(2, buffer.size());
+        assertFalse(json.contains("\"name\":\"a\""));
+        assertTrue(json.indexOf("\"name\":\"b\"") < json.indexOf("\"name\":\"c\""));
+    }
+
+    @Test
+    public void emptyBuffer_recordsNothing() throws Exception {
+        final TraceBuffer buffer = new TraceBuffer(0, new String[] {"a"});
+        buffer.record(0, TraceBuffer.INSTANT, 0, 0);
+
+        assertEquals(0, buffer.size());
+        assertEquals("{\"traceEvents\":[\n]}\n", dump(buffer));
+    }
+}
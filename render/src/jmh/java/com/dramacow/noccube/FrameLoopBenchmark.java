@@ -0,0 +1,69 @@
+package com.dramacow.noccube;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// CPU cost of drawing one frame of a noccube, against a HeadlessBackend (so no GPU time included)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FrameLoopBenchmark {
+
+    private static final float DT = HeadlessFixture.DT;
+
+    @Param({"2", "5", "10", "20", "32"})
+    public int d;
+
+    @Param({"true", "false"})
+    public boolean instancing;
+
+    private HeadlessBackend backend;
+    private ShaderProgram program;
+    private NOCCubeRenderer renderer;
+    private final float vpMatrix[] = new float[16];
+    private final Random rand = new Random(0x5EED);
+
+    @Setup
+    public void setup() {
+        backend = new HeadlessBackend(instancing, 256);
+        program = HeadlessFixture.reset(backend);
+        renderer = new NOCCubeRenderer(new NOCCube(d), HeadlessFixture.blank(), HeadlessFixture.faces());
+        Matrix4.setIdentityM(vpMatrix, 0);
+
+        // Past the scramble animation
+        HeadlessFixture.settleIdle(renderer, program);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int idleFrame() {
+        renderer.draw(vpMatrix, program, DT);
+        return backend.drawCalls;
+    }
+
+    // Frames of a cube continually turning slices (a new move starts as soon as the last one ends)
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int rotatingFrame() {
+        if (renderer.getAnimationState() == NOCCubeRenderer.IDLE) {
+            renderer.permute(rand.nextInt(3), rand.nextInt(d), rand.nextBoolean());
+        }
+        renderer.draw(vpMatrix, program, DT);
+        return backend.drawCalls;
+    }
+}
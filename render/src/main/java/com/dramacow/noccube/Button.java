@@ -1,7 +1,5 @@
 package com.dramacow.noccube;
 
-import android.opengl.Matrix;
-
 public class Button {
     private float x = 0.0f, y = 0.0f; // centre
     private float w = 1.0f, h = 1.0f; // half extents
@@ -9,18 +7,19 @@ public class Button {
     private boolean hasClicked = false; // Used to prevent repeated onClick calls when button is held
 
     private Quad quad;
+    private final float mvpMatrix[] = new float[16]; // Scratch, so drawing allocates nothing
 
-    public Button(final int texId) {
-        this.quad = new Quad(texId);
+    public Button(final TextureRegion region) {
+        this.quad = new Quad(region);
     }
 
     public void set(float x, float y, float w, float h) {
         this.x = x; this.y = y;
         this.w = w; this.h = h;
 
-        Matrix.setIdentityM(this.quad.modelM, 0);
-        Matrix.translateM(this.quad.modelM, 0, x, y, 0.0f);
-        Matrix.scaleM(this.quad.modelM, 0, w, h, 1.0f);
+        Matrix4.setIdentityM(this.quad.modelM, 0);
+        Matrix4.translateM(this.quad.modelM, 0, x, y, 0.0f);
+        Matrix4.scaleM(this.quad.modelM, 0, w, h, 1.0f);
     }
 
     // To be overidden
@@ -42,9 +41,8 @@ public class Button {
         }
     }
 
-    public void draw(final float[] vpMatrix, final int program) {
-        float mvpMatrix[] = new float[16];
-        Matrix.multiplyMM(mvpMatrix, 0, vpMatrix, 0, this.quad.modelM, 0);
+    public void draw(final float[] vpMatrix, final ShaderProgram program) {
+        Matrix4.multiplyMM(mvpMatrix, 0, vpMatrix, 0, this.quad.modelM, 0);
         this.quad.draw(mvpMatrix, program, 1.0f);
     }
 }
@@ -0,0 +1,188 @@
+package com.dramacow.noccube;
+
+// Cube and cube instance
+class Cube {
+
+    public final float modelM[] = new float[16];
+
+    private final int texCoordOffset; // Where this instance's texture co-ordinates are in the shared geometry
+
+    private final TextureRegion faces[];
+
+    public static float vertices[] = {
+        // Front face
+        -1.0f, -1.0f, 1.0f,// Bottom Left
+        1.0f, -1.0f, 1.0f, // Bottom Right
+        1.0f, 1.0f, 1.0f,  // Top Right
+        -1.0f, 1.0f, 1.0f, // Top left
+
+        // Back face
+        1.0f, -1.0f, -1.0f,// Bottom Left
+        -1.0f, -1.0f, -1.0f, // Bottom Right
+        -1.0f, 1.0f, -1.0f,  // Top Right
+        1.0f, 1.0f, -1.0f, // Top left
+
+        // Left face
+        -1.0f, -1.0f, -1.0f,// Bottom Left
+        -1.0f, -1.0f, 1.0f, // Bottom Right
+        -1.0f, 1.0f, 1.0f,  // Top Right
+        -1.0f, 1.0f, -1.0f, // Top left
+
+        // Right face
+        1.0f, -1.0f, 1.0f,// Bottom Left
+        1.0f, -1.0f, -1.0f, // Bottom Right
+        1.0f, 1.0f, -1.0f,  // Top Right
+        1.0f, 1.0f, 1.0f, // Top left
+
+        // Top face
+        -1.0f, 1.0f, 1.0f,// Bottom Left
+        1.0f, 1.0f, 1.0f, // Bottom Right
+        1.0f, 1.0f, -1.0f,  // Top Right
+        -1.0f, 1.0f, -1.0f, // Top left
+
+        // Bottom face
+        -1.0f, -1.0f, -1.0f,// Bottom Left
+        1.0f, -1.0f, -1.0f, // Bottom Right
+        1.0f, -1.0f, 1.0f,  // Top Right
+        -1.0f, -1.0f, 1.0f // Top left
+    };
+
+    public static float colours[] = {
+        // Front face
+        0.0f, 0.0f, 0.0f, 1.0f,
+        0.0f, 0.0f, 1.0f, 1.0f,
+        0.0f, 1.0f, 0.0f, 1.0f,
+        0.0f, 1.0f, 1.0f, 1.0f,
+
+        // Back face
+        1.0f, 0.0f, 0.0f, 1.0f,
+        1.0f, 0.0f, 1.0f, 1.0f,
+        1.0f, 1.0f, 0.0f, 1.0f,
+        1.0f, 1.0f, 1.0f, 1.0f,
+
+        // Left face
+        0.0f, 0.0f, 0.0f, 1.0f,
+        0.0f, 0.0f, 1.0f, 1.0f,
+        0.0f, 1.0f, 0.0f, 1.0f,
+        0.0f, 1.0f, 1.0f, 1.0f,
+
+        // Right face
+        1.0f, 0.0f, 0.0f, 1.0f,
+        1.0f, 0.0f, 1.0f, 1.0f,
+        1.0f, 1.0f, 0.0f, 1.0f,
+        1.0f, 1.0f, 1.0f, 1.0f,
+
+        // Top face
+        0.0f, 0.0f, 0.0f, 1.0f,
+        0.0f, 0.0f, 1.0f, 1.0f,
+        0.0f, 1.0f, 0.0f, 1.0f,
+        0.0f, 1.0f, 1.0f, 1.0f,
+
+        // Bottom face
+        1.0f, 0.0f, 0.0f, 1.0f,
+        1.0f, 0.0f, 1.0f, 1.0f,
+        1.0f, 1.0f, 0.0f, 1.0f,
+        1.0f, 1.0f, 1.0f, 1.0f
+    };
+
+    public static float[] fullFaceTexCoords = {
+        0.0f, 0.0f,     // Bottom Left
+        1.0f, 0.0f,     // Bottom Right
+        1.0f, -1.0f,     // Top Right
+        0.0f, -1.0f,      // Top left
+    };
+
+    public static float[] faceTexCoords(final float frac, final int x, final int y) {
+        final float[] faceTexCoords = {
+            x * frac, (y+1) * frac,
+            (x+1) * frac, (y+1) * frac,
+            (x+1) * frac, y * frac,
+            x * frac, y * frac
+        };
+        return faceTexCoords;
+    }
+
+    public static short indices[] = {
+        0,1,2, 0,2,3,       //front
+        4,5,6, 4,6,7,       //back
+
+        8,9,10, 8,10,11,    //left
+        12,13,14, 12,14,15, //right
+
+        16,17,18, 16,18,19, //top
+        20,21,22, 20,22,23  //bottom
+    };
+
+    public Cube(final TextureRegion[] faces, final float[][] faceTexCoords) {
+        // Texture data/offsets
+        this.faces = faces;
+
+        // Get texture coordinates from individual coordinates for faces (mapped into each face's region)
+        final float texCoords[] = new float[48];
+        for (int i = 0; i < faceTexCoords.length; i++) {
+            final float mapped[] = faces[i].map(faceTexCoords[i]);
+            for (int j = 0; j < mapped.length; j++) {
+                texCoords[(8*i)+j] = mapped[j];
+            }
+        }
+
+        // Only the texture co-ordinates are per instance, the mesh is shared
+        texCoordOffset = Geometry.addTexCoords(texCoords);
+
+        // Model matrix
+        Matrix4.setIdentityM(modelM, 0);
+    }
+
+    public void draw(final float[] mvpMatrix, final ShaderProgram program, final float alpha) {
+        final RenderBackend gl = GL.backend();
+        program.use();
+
+        // Program handles (resolved when the program was linked)
+        final int mvpMatrixHandle = program.mvpMatrixHandle;
+        final int alphaUniformHandle = program.alphaUniformHandle;
+        final int positionHandle = program.positionHandle;
+        final int colourHandle = program.colourHandle;
+        final int texCoordHandle = program.texCoordHandle;
+
+        Geometry.bind();
+
+        gl.glEnableVertexAttribArray(positionHandle);   // Enable a handle to the triangle vertices
+        gl.glVertexAttribPointer(                       // Prepare the triangle coordinate data
+            positionHandle, 3,
+            RenderBackend.GL_FLOAT, false,
+            12, Geometry.CUBE_VERTICES * Geometry.FLOAT_SIZE
+        );
+
+        if (colourHandle != -1) { // Not used by every program
+            gl.glEnableVertexAttribArray(colourHandle);
+            gl.glVertexAttribPointer(
+                colourHandle, 4,
+                RenderBackend.GL_FLOAT, false,
+                16, Geometry.CUBE_COLOURS * Geometry.FLOAT_SIZE
+            );
+        }
+
+        gl.glEnableVertexAttribArray(texCoordHandle);
+        gl.glVertexAttribPointer(
+            texCoordHandle, 2,
+            RenderBackend.GL_FLOAT, false,
+            8, texCoordOffset * Geometry.FLOAT_SIZE
+        );
+
+        // Apply the projection and view transformation
+        gl.glUniformMatrix4fv(mvpMatrixHandle, 1, false, mvpMatrix, 0);
+
+        gl.glUniform1f(alphaUniformHandle, alpha);
+
+        for (int i = 0; i < 6; i++) {
+            faces[i].bind(); // NOTE: only rebinds if the faces are not from the same atlas
+            // Offset to the face's indices (6 since 2 triangles per face)
+            gl.glDrawElements(RenderBackend.GL_TRIANGLES, 6, RenderBackend.GL_UNSIGNED_SHORT, (Geometry.CUBE_INDICES + 6*i) * Geometry.SHORT_SIZE);
+        }
+
+        // Disable vertex array
+        gl.glDisableVertexAttribArray(positionHandle);
+        if (colourHandle != -1) gl.glDisableVertexAttribArray(colourHandle);
+        gl.glDisableVertexAttribArray(texCoordHandle);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,517 @@
+package com.dramacow.noccube;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+// Draws every cube of a noccube from one shared mesh and one texture atlas in a handful of draw
+// calls, instead of 6 draw calls per cube. Uses instanced arrays where available (OpenGL ES 3.0),
+// otherwise packs batches of instances into uniform arrays and draws a mesh holding one copy
+// of the cube per batch slot.
+// Can either draw every face of every cube, or just the faces that can be seen when the cubes are
+// packed together (the outer faces, any exposed by a turning slice, and boxes filling the core).
+// Cubes are placed on the GPU from their grid position and orientation (one of 24, looked up in a
+// table of rotations), the seperation between them and the turn of the turning slice, so only the
+// cubes a move changes are updated and nothing per cube is uploaded while the noccube animates.
+class CubeBatch {
+
+    // Vertex: position (3), corner (2), normal (3), tile u (4), tile v (4), face region (4), batch slot (1)
+    private static final int VERTEX_SIZE = 21;
+
+    // Instance: grid position and orientation (4), home position (4), i.e. 2 vec4s
+    private static final int INSTANCE_SIZE = 8;
+    private static final int INSTANCE_VECTORS = INSTANCE_SIZE / 4;
+
+    // Vertex shader uniform vectors left over for everything other than the instances
+    private static final int RESERVED_UNIFORMS = 56;
+    private static final int MAX_BATCH_SIZE = 64;
+
+    // Core boxes drawn behind the shell (the core split either side of a turning slice), as
+    // instances with an "orientation" of CORE + the index of their model matrix
+    public static final int MAX_CORES = 3;
+    private static final int CORE = Orientation.COUNT;
+    private static final float CORE_HOME[] = { 0.0f, 0.0f, 0.0f, 0.0f }; // w = 0 shows the inside region
+    private static final float CORE_CUBES[] = {
+        0.0f, 0.0f, 0.0f, CORE,     0.0f, 0.0f, 0.0f, CORE + 1,     0.0f, 0.0f, 0.0f, CORE + 2
+    };
+
+    // Each orientation (see Orientation.matrix) as a quaternion (x, y, z, w)
+    static final float ROTATIONS[] = new float[4*Orientation.COUNT];
+    static {
+        for (int o = 0; o < Orientation.COUNT; o++) {
+            final int R[] = Orientation.matrix(o); // NOTE: rows of the array are columns of the matrix
+            final float m00 = R[0], m10 = R[1], m20 = R[2];
+            final float m01 = R[3], m11 = R[4], m21 = R[5];
+            final float m02 = R[6], m12 = R[7], m22 = R[8];
+            final float q[] = new float[4];
+
+            final float trace = m00 + m11 + m22;
+            if (trace > 0.0f) {
+                final float s = 2.0f * (float) Math.sqrt(1.0f + trace);
+                q[0] = (m21 - m12) / s; q[1] = (m02 - m20) / s; q[2] = (m10 - m01) / s; q[3] = 0.25f * s;
+            } else if (m00 >= m11 && m00 >= m22) {
+                final float s = 2.0f * (float) Math.sqrt(1.0f + m00 - m11 - m22);
+                q[0] = 0.25f * s; q[1] = (m01 + m10) / s; q[2] = (m02 + m20) / s; q[3] = (m21 - m12) / s;
+            } else if (m11 >= m22) {
+                final float s = 2.0f * (float) Math.sqrt(1.0f + m11 - m00 - m22);
+                q[0] = (m01 + m10) / s; q[1] = 0.25f * s; q[2] = (m12 + m21) / s; q[3] = (m02 - m20) / s;
+            } else {
+                final float s = 2.0f * (float) Math.sqrt(1.0f + m22 - m00 - m11);
+                q[0] = (m02 + m20) / s; q[1] = (m12 + m21) / s; q[2] = 0.25f * s; q[3] = (m10 - m01) / s;
+            }
+            System.arraycopy(q, 0, ROTATIONS, 4*o, 4);
+        }
+    }
+
+    // Per face: outward normal, then how the column (u) and row (v) of the face texture tile shown
+    // by a cube follow from its home position, as axis coefficients plus a multiple of (d - 1)
+    static final float FACES[][] = {
+        { 0.0f, 0.0f, 1.0f,     1.0f, 0.0f, 0.0f, 0.0f,     0.0f,-1.0f, 0.0f, 1.0f }, // front
+        { 0.0f, 0.0f,-1.0f,    -1.0f, 0.0f, 0.0f, 1.0f,     0.0f,-1.0f, 0.0f, 1.0f }, // back
+        {-1.0f, 0.0f, 0.0f,     0.0f, 0.0f, 1.0f, 0.0f,     0.0f,-1.0f, 0.0f, 1.0f }, // left
+        { 1.0f, 0.0f, 0.0f,     0.0f, 0.0f,-1.0f, 1.0f,     0.0f,-1.0f, 0.0f, 1.0f }, // right
+        { 0.0f, 1.0f, 0.0f,     1.0f, 0.0f, 0.0f, 0.0f,     0.0f, 0.0f, 1.0f, 0.0f }, // top
+        { 0.0f,-1.0f, 0.0f,     1.0f, 0.0f, 0.0f, 0.0f,     0.0f, 0.0f,-1.0f, 1.0f }  // bottom
+    };
+
+    static final float CORNERS[] = {
+        0.0f, 0.0f, // Bottom Left
+        1.0f, 0.0f, // Bottom Right
+        1.0f, 1.0f, // Top Right
+        0.0f, 1.0f  // Top left
+    };
+
+    // Texture coordinates are worked out in the shader: cubes on the outside of the noccube show
+    // their tile of the face's region (see Cube.faceTexCoords), the rest show the inside region.
+    // A cube is rotated by its orientation's quaternion, then moved out to its grid position (and
+    // turned with the turning slice, the one whose position along uTurnSlice.xyz is uTurnSlice.w).
+    private static final String vertexShaderCode =
+        "uniform mat4 uVPMatrix;"                                                     +
+        "uniform float uD;"                                                           +
+        "uniform float uSeperation;"                                                  +
+        "uniform vec4 uRotations[" + CORE + "];"                                      +
+        "uniform mat4 uCores[" + MAX_CORES + "];"                                     +
+        "uniform mat4 uTurn;"                                                         +
+        "uniform vec4 uTurnSlice;"                                                    +
+        "attribute vec4 aPosition;"                                                   +
+        "attribute vec2 aCorner;"                                                     +
+        "attribute vec3 aNormal;"                                                     +
+        "attribute vec4 aTileU;"                                                      +
+        "attribute vec4 aTileV;"                                                      +
+        "attribute vec4 aRect;"                                                       +
+        "uniform vec4 uInsideRect;"                                                   +
+        "\n#ifdef INSTANCED\n"                                                        +
+        "attribute vec4 aCube;"                                                       +
+        "attribute vec4 aHome;"                                                       +
+        "\n#else\n"                                                                   +
+        "uniform vec4 uInstances[" + INSTANCE_VECTORS + " * BATCH_SIZE];"             +
+        "attribute float aSlot;"                                                      +
+        "\n#endif\n"                                                                  +
+        "varying vec2 vTexCoord;"                                                     +
+        "void main() {"                                                               +
+        "\n#ifdef INSTANCED\n"                                                        +
+        "   vec4 cube = aCube;"                                                       +
+        "   vec4 home = aHome;"                                                       +
+        "\n#else\n"                                                                   +
+        "   int i = " + INSTANCE_VECTORS + " * int(aSlot);"                           +
+        "   vec4 cube = uInstances[i];"                                               +
+        "   vec4 home = uInstances[i+1];"                                             +
+        "\n#endif\n"                                                                  +
+        "   float edge = 0.5 * (uD - 1.0);"                                           +
+        "   vec4 position;"                                                           +
+        "   if (cube.w < " + CORE + ".0) {"                                           +
+        "       vec4 q = uRotations[int(cube.w)];"                                    +
+        "       vec3 p = aPosition.xyz;"                                              +
+        "       p += 2.0 * cross(q.xyz, cross(q.xyz, p) + q.w * p);"                  +
+        "       position = vec4(p + uSeperation * (cube.xyz - edge), 1.0);"           +
+        "       if (dot(cube.xyz, uTurnSlice.xyz) == uTurnSlice.w) position = uTurn * position;" +
+        "   } else {"                                                                 +
+        "       position = uCores[int(cube.w) - " + CORE + "] * aPosition;"           +
+        "   }"                                                                        +
+        "   float outer = step(edge - 0.5, dot(home.xyz - edge, aNormal)) * home.w;"  +
+        "   vec2 tile = vec2("                                                        +
+        "       dot(home.xyz, aTileU.xyz) + aTileU.w * (uD - 1.0),"                   +
+        "       dot(home.xyz, aTileV.xyz) + aTileV.w * (uD - 1.0));"                  +
+        "   vec2 tileCoord = vec2(tile.x + aCorner.x, tile.y + 1.0 - aCorner.y) / uD;" +
+        "   vec2 fullCoord = vec2(aCorner.x, 1.0 - aCorner.y);"                       +
+        "   vec4 rect = mix(uInsideRect, aRect, outer);"                              +
+        "   vTexCoord = rect.xy + mix(fullCoord, tileCoord, outer) * rect.zw;"        +
+        "   gl_Position = uVPMatrix * position;"                                      +
+        "}";
+
+    private static final String fragmentShaderCode =
+        "precision mediump float;"                                                    +
+        "uniform sampler2D uTex;"                                                     +
+        "uniform float uAlpha;"                                                       +
+        "varying vec2 vTexCoord;"                                                     +
+        "void main() {"                                                               +
+        "   gl_FragColor = texture2D(uTex, vTexCoord);"                               +
+        "   gl_FragColor.a *= uAlpha;"                                                +
+        "}";
+
+    private final int d;
+    private final int count; // Number of cubes (d*d*d)
+    private final TextureRegion inside;
+    private final TextureRegion faces[]; // NOTE: must all be in the same texture as inside
+
+    // Home position of each cube (indexed by display handle), padded to a vec4
+    private final float homes[];
+
+    // Grid position and orientation of each cube (indexed by display handle)
+    final float cubes[];
+
+    // Turning slice (axis, then position along it, w = -1 when none) and its turn
+    final float turnSlice[] = { 0.0f, 0.0f, 0.0f, -1.0f };
+    private final float turn[] = new float[16];
+
+    // Shell: per face of the cube mesh (see FACES), the display handles of the cubes to draw it for.
+    // The outer faces come first and never change, exposed faces are added after them.
+    private final int faceHandles[][] = new int[6][];
+    private final int outerCounts[] = new int[6];
+    private final int faceCounts[] = new int[6];
+
+    // Instance data (cube, home) of everything drawn, in draw order. Only put together again
+    // (and uploaded) when something in it has changed.
+    private final float instances[];
+    private final int faceFirsts[] = new int[6]; // Where each face's instances start
+    private int coreFirst;
+    private static final int NONE = 0, EVERY = 1, SHELL = 2;
+    private int gathered = NONE; // What the instances currently hold
+
+    // GL state (created on the first draw, since the constructor may not be on the GL thread,
+    // and again whenever the context is lost)
+    private int generation = 0;
+    private RenderBackend gl;
+    private boolean instanced;
+    private int batchSize; // Instances per draw call (the whole noccube when instanced)
+
+    private ShaderProgram program;
+    private int vpMatrixHandle, dHandle, seperationHandle, rotationsHandle, coresHandle, turnHandle, turnSliceHandle;
+    private int instancesHandle, texUniformHandle, insideRectHandle, alphaUniformHandle;
+    private int positionHandle, cornerHandle, normalHandle, tileUHandle, tileVHandle, rectHandle, slotHandle, cubeHandle, homeHandle;
+
+    private final int buffers[] = new int[3]; // Mesh vertices, mesh indices, instances
+    private FloatBuffer instanceBuffer;       // Instanced: staging for the instances
+    private int faceIndices;                  // Start of the indices ordered by face (then batch slot)
+
+    // Face of the cube mesh (see FACES) with the given outward normal
+    static int faceFacing(final float x, final float y, final float z) {
+        for (int face = 0; face < 5; face++) {
+            if (FACES[face][0] == x && FACES[face][1] == y && FACES[face][2] == z) return face;
+        }
+        return 5;
+    }
+
+    public CubeBatch(final int d, final TextureRegion inside, final TextureRegion faces[]) {
+        this.d = d;
+        this.count = d*d*d;
+        this.inside = inside;
+        this.faces = faces;
+
+        homes = new float[4*count];
+        cubes = new float[4*count];
+        for (int i = 0; i < count; i++) {
+            homes[4*i]     = i % d;
+            homes[4*i + 1] = (i / d) % d;
+            homes[4*i + 2] = i / (d*d);
+            homes[4*i + 3] = 1.0f;
+            setCube(i, i % d, (i / d) % d, i / (d*d), Orientation.IDENTITY);
+        }
+        Matrix4.setIdentityM(turn, 0);
+
+        // Outer faces, i.e. the ones that show the face textures. Slice turns only ever move
+        // these between outer positions, so they are fixed for each cube.
+        for (int face = 0; face < 6; face++) {
+            // Outer faces, plus room for the faces either side of a turning slice
+            faceHandles[face] = new int[5*d*d];
+            for (int i = 0; i < count; i++) {
+                float along = 0.0f;
+                for (int axis = 0; axis < 3; axis++) along += (homes[4*i + axis] - 0.5f*(d-1)) * FACES[face][axis];
+
+                if (along == 0.5f*(d-1)) faceHandles[face][outerCounts[face]++] = i;
+            }
+        }
+        clearExposed();
+
+        instances = new float[INSTANCE_SIZE * Math.max(count, 10*d*d + MAX_CORES)];
+    }
+
+    // Moves a cube (by display handle) to a grid position, in one of the 24 orientations
+    public void setCube(final int handle, final int x, final int y, final int z, final int orientation) {
+        cubes[4*handle]     = x;
+        cubes[4*handle + 1] = y;
+        cubes[4*handle + 2] = z;
+        cubes[4*handle + 3] = orientation;
+        gathered = NONE;
+    }
+
+    // Turns the cubes of a slice (as they are now, see setCube) by the given rotation, or none if axis is -1
+    public void setTurn(final int axis, final int slice, final float[] rotation) {
+        for (int i = 0; i < 3; i++) turnSlice[i] = i == axis ? 1.0f : 0.0f;
+        turnSlice[3] = axis >= 0 ? slice : -1.0f;
+        if (axis >= 0) System.arraycopy(rotation, 0, turn, 0, 16);
+    }
+
+    // Removes every exposed face
+    public void clearExposed() {
+        System.arraycopy(outerCounts, 0, faceCounts, 0, 6);
+        gathered = NONE;
+    }
+
+    // Adds a face of the cube mesh (see Cube.vertices) that can currently be seen past the outer faces
+    // NOTE: an interior face (an outer one is always drawn), and never added twice
+    public void addExposed(final int handle, final int face) {
+        faceHandles[face][faceCounts[face]++] = handle;
+        gathered = NONE;
+    }
+
+    private void initialise() {
+        gl = GL.backend();
+        instanced = gl.supportsInstancing();
+
+        if (instanced) {
+            batchSize = count;
+        } else {
+            final int max[] = new int[1];
+            gl.glGetIntegerv(RenderBackend.GL_MAX_VERTEX_UNIFORM_VECTORS, max, 0);
+            batchSize = Math.max(1, Math.min(MAX_BATCH_SIZE, (max[0] - RESERVED_UNIFORMS) / INSTANCE_VECTORS));
+        }
+
+        // Program
+        final String defines = instanced ? "#define INSTANCED\n" : "#define BATCH_SIZE " + batchSize + "\n";
+        program = new ShaderProgram(defines + vertexShaderCode, fragmentShaderCode,
+                new String[] {"uVPMatrix", "uD", "uSeperation", "uRotations", "uCores", "uTurn", "uTurnSlice", "uInstances", "uInsideRect"},
+                new String[] {"aCorner", "aNormal", "aTileU", "aTileV", "aRect", "aSlot", "aCube", "aHome"});
+
+        vpMatrixHandle = program.uniform("uVPMatrix");
+        dHandle = program.uniform("uD");
+        seperationHandle = program.uniform("uSeperation");
+        rotationsHandle = program.uniform("uRotations");
+        coresHandle = program.uniform("uCores");
+        turnHandle = program.uniform("uTurn");
+        turnSliceHandle = program.uniform("uTurnSlice");
+        instancesHandle = program.uniform("uInstances");
+        texUniformHandle = program.texUniformHandle;
+        insideRectHandle = program.uniform("uInsideRect");
+        alphaUniformHandle = program.alphaUniformHandle;
+        // ---
+        positionHandle = program.positionHandle;
+        cornerHandle = program.attribute("aCorner");
+        normalHandle = program.attribute("aNormal");
+        tileUHandle = program.attribute("aTileU");
+        tileVHandle = program.attribute("aTileV");
+        rectHandle = program.attribute("aRect");
+        slotHandle = program.attribute("aSlot");
+        cubeHandle = program.attribute("aCube");
+        homeHandle = program.attribute("aHome");
+
+        // Mesh, one copy of the cube per batch slot (a single copy when instanced). Indices come
+        // twice: by batch slot (whole cubes), then by face (one face of a run of batch slots).
+        final int copies = instanced ? 1 : batchSize;
+        final FloatBuffer vertices = allocateFloats(24 * VERTEX_SIZE * copies);
+        final ShortBuffer indices = allocateShorts(2 * 36 * copies);
+
+        for (int copy = 0; copy < copies; copy++) {
+            for (int v = 0; v < 24; v++) {
+                final TextureRegion region = faces[v / 4];
+                vertices.put(Cube.vertices, 3*v, 3);
+                vertices.put(CORNERS, 2*(v % 4), 2);
+                vertices.put(FACES[v / 4]);
+                vertices.put(region.u0).put(region.v0).put(region.u1 - region.u0).put(region.v1 - region.v0);
+                vertices.put(copy);
+            }
+
+            for (int j = 0; j < 36; j++) {
+                indices.put((short) (24*copy + Cube.indices[j]));
+            }
+        }
+
+        faceIndices = 36 * copies;
+        for (int face = 0; face < 6; face++) {
+            for (int copy = 0; copy < copies; copy++) {
+                for (int j = 6*face; j < 6*face + 6; j++) {
+                    indices.put((short) (24*copy + Cube.indices[j]));
+                }
+            }
+        }
+
+        gl.glGenBuffers(buffers.length, buffers, 0);
+        upload(RenderBackend.GL_ARRAY_BUFFER, buffers[0], vertices.position(0), RenderBackend.GL_STATIC_DRAW);
+        upload(RenderBackend.GL_ELEMENT_ARRAY_BUFFER, buffers[1], indices.position(0), RenderBackend.GL_STATIC_DRAW);
+
+        if (instanced) {
+            instanceBuffer = allocateFloats(instances.length);
+            upload(RenderBackend.GL_ARRAY_BUFFER, buffers[2], instanceBuffer, RenderBackend.GL_DYNAMIC_DRAW);
+        }
+        gathered = NONE;
+
+        // Uniforms that never change (they stay with the program)
+        program.use();
+        gl.glUniform1f(dHandle, d);
+        gl.glUniform4fv(rotationsHandle, CORE, ROTATIONS, 0);
+        gl.glUniform1i(texUniformHandle, 0); // Every face comes from the same atlas
+        gl.glUniform4f(insideRectHandle, inside.u0, inside.v0, inside.u1 - inside.u0, inside.v1 - inside.v0);
+
+        generation = Geometry.generation();
+    }
+
+    // Draws every face of every cube, seperation apart
+    public void draw(final float[] vpMatrix, final float seperation, final float alpha) {
+        begin(vpMatrix, seperation, alpha, EVERY);
+        drawRange(0, count, -1);
+        end();
+    }
+
+    // Draws just the outer and exposed faces, and the core boxes behind them (cores holding the
+    // model matrix of each, mapping the cube mesh onto the box)
+    public void drawShell(final float[] vpMatrix, final float seperation,
+                          final float[] cores, final int coreCount, final float alpha) {
+        begin(vpMatrix, seperation, alpha, SHELL);
+        gl.glUniformMatrix4fv(coresHandle, coreCount, false, cores, 0);
+
+        for (int face = 0; face < 6; face++) {
+            drawRange(faceFirsts[face], faceCounts[face], face);
+        }
+        drawRange(coreFirst, coreCount, -1);
+        end();
+    }
+
+    // Puts together the instances of every cube, or of just the shell
+    private void gather(final int what) {
+        int n = 0;
+        if (what == EVERY) {
+            for (int h = 0; h < count; h++) {
+                n = putInstance(n, cubes, 4*h, homes, 4*h);
+            }
+        } else {
+            for (int face = 0; face < 6; face++) {
+                faceFirsts[face] = n;
+                final int handles[] = faceHandles[face];
+                for (int i = 0; i < faceCounts[face]; i++) {
+                    n = putInstance(n, cubes, 4*handles[i], homes, 4*handles[i]);
+                }
+            }
+            coreFirst = n;
+            for (int core = 0; core < MAX_CORES; core++) {
+                n = putInstance(n, CORE_CUBES, 4*core, CORE_HOME, 0);
+            }
+        }
+
+        if (instanced) {
+            // Every instance in one upload
+            instanceBuffer.position(0);
+            instanceBuffer.put(instances, 0, INSTANCE_SIZE * n).position(0);
+            gl.glBindBuffer(RenderBackend.GL_ARRAY_BUFFER, buffers[2]);
+            gl.glBufferSubData(RenderBackend.GL_ARRAY_BUFFER, 0, INSTANCE_SIZE * n * Geometry.FLOAT_SIZE, instanceBuffer);
+        }
+        gathered = what;
+    }
+
+    private int putInstance(final int i, final float[] cubes, final int cube, final float[] positions, final int home) {
+        System.arraycopy(cubes, cube, instances, INSTANCE_SIZE * i, 4);
+        System.arraycopy(positions, home, instances, INSTANCE_SIZE * i + 4, 4);
+        return i + 1;
+    }
+
+    // Sets up everything for a run of draws of every cube or of the shell
+    private void begin(final float[] vpMatrix, final float seperation, final float alpha, final int what) {
+        if (generation != Geometry.generation()) initialise();
+        if (gathered != what) gather(what);
+
+        program.use();
+        gl.glUniformMatrix4fv(vpMatrixHandle, 1, false, vpMatrix, 0);
+        gl.glUniform1f(seperationHandle, seperation);
+        gl.glUniformMatrix4fv(turnHandle, 1, false, turn, 0);
+        gl.glUniform4fv(turnSliceHandle, 1, turnSlice, 0);
+        gl.glUniform1f(alphaUniformHandle, alpha);
+        inside.bind();
+
+        // Mesh
+        gl.glBindBuffer(RenderBackend.GL_ARRAY_BUFFER, buffers[0]);
+        gl.glBindBuffer(RenderBackend.GL_ELEMENT_ARRAY_BUFFER, buffers[1]);
+        final int stride = VERTEX_SIZE * Geometry.FLOAT_SIZE;
+        enableAttribute(positionHandle, 3, stride, 0);
+        enableAttribute(cornerHandle, 2, stride, 3);
+        enableAttribute(normalHandle, 3, stride, 5);
+        enableAttribute(tileUHandle, 4, stride, 8);
+        enableAttribute(tileVHandle, 4, stride, 12);
+        enableAttribute(rectHandle, 4, stride, 16);
+
+        if (instanced) {
+            gl.glBindBuffer(RenderBackend.GL_ARRAY_BUFFER, buffers[2]);
+            gl.glEnableVertexAttribArray(cubeHandle);
+            gl.glVertexAttribDivisor(cubeHandle, 1);
+            gl.glEnableVertexAttribArray(homeHandle);
+            gl.glVertexAttribDivisor(homeHandle, 1);
+        } else {
+            enableAttribute(slotHandle, 1, stride, 20);
+        }
+    }
+
+    private void end() {
+        if (instanced) {
+            // Divisors are shared with every other program using these attribute indices
+            gl.glVertexAttribDivisor(cubeHandle, 0);
+            gl.glDisableVertexAttribArray(cubeHandle);
+            gl.glVertexAttribDivisor(homeHandle, 0);
+            gl.glDisableVertexAttribArray(homeHandle);
+        } else {
+            gl.glDisableVertexAttribArray(slotHandle);
+        }
+
+        gl.glDisableVertexAttribArray(positionHandle);
+        gl.glDisableVertexAttribArray(cornerHandle);
+        gl.glDisableVertexAttribArray(normalHandle);
+        gl.glDisableVertexAttribArray(tileUHandle);
+        gl.glDisableVertexAttribArray(tileVHandle);
+        gl.glDisableVertexAttribArray(rectHandle);
+    }
+
+    // Draws n instances from first, either whole cubes (face -1) or just one face of them
+    private void drawRange(final int first, final int n, final int face) {
+        if (n == 0) return;
+
+        if (instanced) {
+            final int stride = INSTANCE_SIZE * Geometry.FLOAT_SIZE;
+            gl.glVertexAttribPointer(cubeHandle, 4, RenderBackend.GL_FLOAT, false, stride, INSTANCE_SIZE*first * Geometry.FLOAT_SIZE);
+            gl.glVertexAttribPointer(homeHandle, 4, RenderBackend.GL_FLOAT, false, stride, (INSTANCE_SIZE*first + 4) * Geometry.FLOAT_SIZE);
+
+            if (face < 0) {
+                gl.glDrawElementsInstanced(RenderBackend.GL_TRIANGLES, 36, RenderBackend.GL_UNSIGNED_SHORT, 0, n);
+            } else {
+                gl.glDrawElementsInstanced(RenderBackend.GL_TRIANGLES, 6, RenderBackend.GL_UNSIGNED_SHORT, (faceIndices + 6*face) * Geometry.SHORT_SIZE, n);
+            }
+        } else {
+            for (int batch = 0; batch < n; batch += batchSize) {
+                final int k = Math.min(batchSize, n - batch);
+                gl.glUniform4fv(instancesHandle, INSTANCE_VECTORS * k, instances, INSTANCE_SIZE * (first + batch));
+
+                if (face < 0) {
+                    gl.glDrawElements(RenderBackend.GL_TRIANGLES, 36*k, RenderBackend.GL_UNSIGNED_SHORT, 0);
+                } else {
+                    gl.glDrawElements(RenderBackend.GL_TRIANGLES, 6*k, RenderBackend.GL_UNSIGNED_SHORT, (faceIndices + 6*batchSize*face) * Geometry.SHORT_SIZE);
+                }
+            }
+        }
+    }
+
+    private void enableAttribute(final int handle, final int size, final int stride, final int offset) {
+        gl.glEnableVertexAttribArray(handle);
+        gl.glVertexAttribPointer(handle, size, RenderBackend.GL_FLOAT, false, stride, offset * Geometry.FLOAT_SIZE);
+    }
+
+    private void upload(final int target, final int buffer, final java.nio.Buffer data, final int usage) {
+        final int size = data.capacity() * (data instanceof ShortBuffer ? Geometry.SHORT_SIZE : Geometry.FLOAT_SIZE);
+        gl.glBindBuffer(target, buffer);
+        gl.glBufferData(target, size, data, usage);
+    }
+
+    private static FloatBuffer allocateFloats(final int n) {
+        return ByteBuffer.allocateDirect(n * Geometry.FLOAT_SIZE).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    private static ShortBuffer allocateShorts(final int n) {
+        return ByteBuffer.allocateDirect(n * Geometry.SHORT_SIZE).order(ByteOrder.nativeOrder()).asShortBuffer();
+    }
+}
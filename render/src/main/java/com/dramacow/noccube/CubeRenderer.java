@@ -0,0 +1,15 @@
+package com.dramacow.noccube;
+
+public interface CubeRenderer {
+    // Advances any animation by dt seconds (a fixed step, see FixedStepClock)
+    public void update(final float dt);
+
+    // Draws, interpolation (0 to 1) of the way from the state before the last update to after it
+    // TODO: no longer need to pass in program
+    public void render(final float[] vpMatrix, final ShaderProgram program, final float interpolation);
+
+    // Updates by dt then draws (as it stands after the update)
+    public void draw(final float[] vpMatrix, final ShaderProgram program, final float dt);
+
+    public void permute(final int axis, final int slice,  final boolean clockwise);
+}
@@ -3,9 +3,9 @@ package com.dramacow.noccube;
 public class DisplayCubeRenderer implements CubeRenderer {
     public Cube displaycube;
 
-    public DisplayCubeRenderer(final int tex[]) {
+    public DisplayCubeRenderer(final TextureRegion tex[]) {
         displaycube = new Cube(
-            new int[] {
+            new TextureRegion[] {
                 tex[0], tex[1], tex[2],
                 tex[3], tex[4], tex[5]
             },
@@ -16,8 +16,18 @@ public class DisplayCubeRenderer implements CubeRenderer {
         );
     }
 
-    public void draw(final float[] vpMatrix, final int program, final float dt) {
+    public void update(final float dt) {
+        // Nothing moves
+    }
+
+    public void render(final float[] vpMatrix, final ShaderProgram program, final float interpolation) {
+        Metrics.begin(Metrics.SUBMIT);
         displaycube.draw(vpMatrix, program, 1.0f);
+        Metrics.end(Metrics.SUBMIT);
+    }
+
+    public void draw(final float[] vpMatrix, final ShaderProgram program, final float dt) {
+        render(vpMatrix, program, 1.0f);
     }
 
     public void permute(final int axis, final int slice,  final boolean clockwise) {
@@ -0,0 +1,589 @@
+package com.dramacow.noccube;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+// Draws a (very large) noccube as 6 grids of stickers, one per face, instead of as d*d*d cubes.
+// Each cell of a grid holds which sticker it shows (the face of the cube mesh it came from, its
+// tile of that face's texture and which way round it is), and the vertex shader turns that into
+// texture co-ordinates, so a move only re-uploads the cells of the slice it turned.
+// While a slice turns its cells are drawn on their own, turned, with boxes filling the core (as
+// in NOCCubeRenderer) behind them. The cubes are never drawn apart, so scrambling and solving
+// animate the whole noccube instead.
+public class FaceGridRenderer implements PuzzleRenderer {
+
+    public static final int MIN_D = 20;  // Below this NOCCubeRenderer copes, and looks better
+    public static final int MAX_D = 128; // The 4*d*d vertices of a face must be indexable by a short
+
+    // Vertex: position (3) in one buffer, sticker (tile u, tile v, face of the cube mesh, corner) in another
+    private static final int STICKER_SIZE = 4;
+
+    private static final String vertexShaderCode =
+        "uniform mat4 uVPMatrix;"                                                     +
+        "uniform mat4 uModel;"                                                        +
+        "uniform float uD;"                                                           +
+        "uniform vec4 uRects[6];"                                                     +
+        "attribute vec4 aPosition;"                                                   +
+        "attribute vec4 aSticker;"                                                    +
+        "varying vec2 vTexCoord;"                                                     +
+        "void main() {"                                                               +
+        "   vec4 rect = uRects[int(aSticker.z)];"                                     +
+        "   float c = aSticker.w;"                                                    +
+        "   vec2 corner = vec2(step(0.5, c) - step(2.5, c), step(1.5, c));"           + // See CubeBatch.CORNERS
+        "   vec2 tileCoord = vec2(aSticker.x + corner.x, aSticker.y + 1.0 - corner.y) / uD;" +
+        "   vTexCoord = rect.xy + tileCoord * rect.zw;"                               +
+        "   gl_Position = uVPMatrix * uModel * aPosition;"                            +
+        "}";
+
+    private static final String fragmentShaderCode =
+        "precision mediump float;"                                                    +
+        "uniform sampler2D uTex;"                                                     +
+        "uniform float uAlpha;"                                                       +
+        "varying vec2 vTexCoord;"                                                     +
+        "void main() {"                                                               +
+        "   gl_FragColor = texture2D(uTex, vTexCoord);"                               +
+        "   gl_FragColor.a *= uAlpha;"                                                +
+        "}";
+
+    public final NOCCube noccube;
+    private final int d;
+
+    // Moves are made on noccube straight away and queued to be animated, what is drawn is shown
+    // (see NOCCubeRenderer)
+    private final MoveQueue moves = new MoveQueue(NOCCubeRenderer.MAX_QUEUED_MOVES);
+    private final NOCCube shown;
+    private final int cells; // Per face (d*d)
+
+    // Position (x + d*y + d*d*z) of the cube each cell is a face of, indexed [face*d*d + column + d*row]
+    private final int cellPositions[];
+
+    // Stickers of every cell vertex, and which cells have changed since they were last uploaded
+    final FloatBuffer stickers;
+    private final boolean dirty[];
+    private int dirtyCount = 0;
+
+    // Indices of each face: the cells staying put, then those of the turning slice
+    private final ShortBuffer indices;
+    private final int staticCounts[] = new int[6];
+    private final int turningCounts[] = new int[6];
+    private final boolean indicesChanged[] = new boolean[6];
+    private int indexedAxis = -1, indexedSlice = -1; // Slice the indices currently split out (-1 for none)
+
+    private final TextureRegion faces[];
+    private final float rects[] = new float[4*6]; // Region of each face, as offset and size
+    private final Cube core;
+
+    // GL state (created on the first draw, and again whenever the context is lost)
+    private int generation = 0;
+    private ShaderProgram program;
+    private int vpMatrixHandle, modelHandle, dHandle, rectsHandle, stickerHandle;
+    private final int buffers[] = new int[3]; // Positions, stickers, indices
+
+    // Scratch matrices, so drawing a frame allocates nothing
+    private final float rvpMatrix[] = new float[16];
+    private final float mvpMatrix[] = new float[16];
+    private final float identityMatrix[] = new float[16];
+    private final float rotationMatrix[] = new float[16];
+
+    // Boxes filling the core (see NOCCubeRenderer)
+    private final float cores[] = new float[16*CubeBatch.MAX_CORES];
+    private int coreCount = 0;
+    private int turningCore;
+    private final float turningCoreMatrix[] = new float[16];
+
+    // Animation variables (states as NOCCubeRenderer)
+    private int animation_state = NOCCubeRenderer.EXPAND;
+
+    // Rotation variables
+    private int rotational_axis = -1;
+    private int rotational_slice = -1;
+    private float rotational_angle;
+    private float prev_rotational_angle; // Before the last update, to draw in between
+    private float turn_angle;
+    private float direction;
+    private float angular_speed = (float) Math.toDegrees(4.0*Math.PI);
+
+    // Seperation variables (the whole noccube swells while scrambling, and fades once solved)
+    private static final float INIT_SEP_VELOCITY = 128.0f;
+    private static final float SEP_ACCELERATION = NOCCubeRenderer.SEP_ACCELERATION;
+    private float seperation = 2.0f;
+    private float sep_velocity = INIT_SEP_VELOCITY;
+    private float alpha = 1.0f;
+    private float prev_seperation = seperation, prev_alpha = alpha;
+
+    public FaceGridRenderer(final NOCCube noccube, final TextureRegion blank, final TextureRegion tex[]) {
+        if (noccube.d > MAX_D) throw new IllegalArgumentException("Error: noccube too large to draw (d = " + noccube.d + ")");
+
+        this.noccube = noccube;
+        this.d = noccube.d;
+        this.shown = new NOCCube(d);
+        shown.set(noccube);
+        this.cells = d*d;
+        this.faces = tex;
+
+        for (int face = 0; face < 6; face++) {
+            rects[4*face]     = tex[face].u0;
+            rects[4*face + 1] = tex[face].v0;
+            rects[4*face + 2] = tex[face].u1 - tex[face].u0;
+            rects[4*face + 3] = tex[face].v1 - tex[face].v0;
+        }
+
+        core = new Cube(
+            new TextureRegion[] { blank, blank, blank, blank, blank, blank },
+            new float[][] {
+                Cube.fullFaceTexCoords, Cube.fullFaceTexCoords, Cube.fullFaceTexCoords,
+                Cube.fullFaceTexCoords, Cube.fullFaceTexCoords, Cube.fullFaceTexCoords
+            }
+        );
+
+        // Which cube each cell belongs to, laid out the way the face's texture is tiled
+        cellPositions = new int[6*cells];
+        final int p[] = new int[3];
+        for (int face = 0; face < 6; face++) {
+            final float F[] = CubeBatch.FACES[face];
+            final int normalAxis = F[0] != 0.0f ? 0 : F[1] != 0.0f ? 1 : 2;
+
+            for (int b = 0; b < d; b++) {
+                for (int a = 0; a < d; a++) {
+                    p[normalAxis] = F[normalAxis] > 0.0f ? d-1 : 0;
+                    p[(normalAxis + 1) % 3] = a;
+                    p[(normalAxis + 2) % 3] = b;
+
+                    final int column = (int) (p[0]*F[3] + p[1]*F[4] + p[2]*F[5] + F[6]*(d-1));
+                    final int row    = (int) (p[0]*F[7] + p[1]*F[8] + p[2]*F[9] + F[10]*(d-1));
+                    cellPositions[face*cells + column + d*row] = p[0] + d*p[1] + d*d*p[2];
+                }
+            }
+        }
+
+        stickers = allocateFloats(6 * 4*cells * STICKER_SIZE);
+        dirty = new boolean[6*cells];
+        refreshAll();
+
+        indices = allocateShorts(6 * 6*cells);
+        buildIndices(-1, -1, true);
+
+        Matrix4.setIdentityM(identityMatrix, 0);
+        NOCCubeRenderer.setCore(cores, 0, d, NOCCube.AXIS_X, 0, d - 1);
+        coreCount = 1;
+
+        if (Trace.LEVEL >= Trace.INFO) Trace.begin(Trace.ANIMATION, animation_state, 0);
+    }
+
+    @Override
+    public NOCCube getNOCCube() {
+        return noccube;
+    }
+
+    @Override
+    public int getAnimationState() {
+        return animation_state;
+    }
+
+    private void setAnimationState(final int state, final int axis) {
+        if (Trace.LEVEL >= Trace.INFO) {
+            Trace.end(Trace.ANIMATION, animation_state, 0);
+            Trace.begin(Trace.ANIMATION, state, axis);
+        }
+        animation_state = state;
+
+        if (state != NOCCubeRenderer.ROTATING) {
+            NOCCubeRenderer.setCore(cores, 0, d, NOCCube.AXIS_X, 0, d - 1);
+            coreCount = 1;
+        }
+    }
+
+    @Override
+    public void permute(final int axis, final int slice, final boolean clockwise) {
+        if (animation_state != NOCCubeRenderer.IDLE && animation_state != NOCCubeRenderer.ROTATING) return;
+        if (axis < 0 || axis >= 3 || slice < 0 || slice >= d) return;
+
+        noccube.rotate(axis, slice, clockwise);
+
+        // Too far behind, so the turn is finished and the oldest move shown without animating it
+        // (with the new move queued before the next turn starts, as NOCCubeRenderer)
+        final boolean skip = moves.isFull();
+        if (skip) {
+            if (rotational_axis >= 0) refreshSlice(rotational_axis, rotational_slice);
+            rotational_axis = rotational_slice = -1;
+
+            shown.rotate(moves.axis(), moves.slice(), moves.clockwise());
+            refreshSlice(moves.axis(), moves.slice());
+            moves.remove();
+        }
+        moves.add(axis, slice, clockwise);
+
+        if (skip || animation_state == NOCCubeRenderer.IDLE) nextTurn();
+    }
+
+    // Starts animating the next queued moves (those of the same slice together), or settles down
+    private void nextTurn() {
+        while (!moves.isEmpty()) {
+            final int axis = moves.axis();
+            final int slice = moves.slice();
+
+            // NOTE: the stickers keep showing the slice as it was until it has finished turning
+            int quarters = 0;
+            while (!moves.isEmpty() && moves.axis() == axis && moves.slice() == slice) {
+                quarters += moves.clockwise() ? 1 : -1;
+                shown.rotate(axis, slice, moves.clockwise());
+                moves.remove();
+            }
+
+            quarters = (quarters % 4 + 4) % 4;
+            if (quarters == 0) continue;
+
+            setAnimationState(NOCCubeRenderer.ROTATING, axis);
+            rotational_axis = axis;
+            rotational_slice = slice;
+            rotational_angle = prev_rotational_angle = 0.0f;
+            turn_angle = quarters == 2 ? 180.0f : 90.0f;
+            direction = quarters == 3 ? -1.0f : 1.0f;
+
+            // Core split either side of the slice
+            coreCount = 0;
+            if (slice > 0) NOCCubeRenderer.setCore(cores, 16*coreCount++, d, axis, 0, slice - 1);
+            turningCore = coreCount++;
+            NOCCubeRenderer.setCore(turningCoreMatrix, 0, d, axis, slice, slice);
+            if (slice < d-1) NOCCubeRenderer.setCore(cores, 16*coreCount++, d, axis, slice + 1, d - 1);
+            turn(0.0f);
+            return;
+        }
+
+        setAnimationState(shown.isSolved() ? NOCCubeRenderer.SOLVED : NOCCubeRenderer.IDLE, 0);
+        if (Trace.LEVEL >= Trace.INFO && animation_state == NOCCubeRenderer.SOLVED) Trace.instant(Trace.SOLVED, 0, 0);
+    }
+
+    @Override
+    public void draw(final float[] vpMatrix, final ShaderProgram program, final float dt) {
+        update(dt);
+        render(vpMatrix, program, 1.0f);
+    }
+
+    @Override
+    public void update(final float dt) {
+        prev_rotational_angle = rotational_angle;
+        prev_seperation = seperation;
+        prev_alpha = alpha;
+
+        switch (animation_state) {
+            case NOCCubeRenderer.EXPAND: {
+                seperation += 8.0f * dt;
+
+                if (seperation >= NOCCubeRenderer.INIT_SEPERATION + 1.0f) {
+                    seperation = NOCCubeRenderer.INIT_SEPERATION + 1.0f;
+                    setAnimationState(NOCCubeRenderer.CONTRACT, 0);
+
+                    noccube.scramble();
+                    shown.set(noccube);
+                    refreshAll();
+                }
+
+                break;
+            }
+
+            case NOCCubeRenderer.CONTRACT: {
+                seperation += -8.0f * dt;
+
+                if (seperation <= NOCCubeRenderer.INIT_SEPERATION) {
+                    seperation = NOCCubeRenderer.INIT_SEPERATION;
+                    setAnimationState(NOCCubeRenderer.IDLE, 0);
+                }
+
+                break;
+            }
+
+            case NOCCubeRenderer.ROTATING: {
+                // Faster the more moves are waiting
+                rotational_angle += angular_speed * (1 + moves.size()) * dt;
+
+                if (rotational_angle >= turn_angle) {
+                    refreshSlice(rotational_axis, rotational_slice);
+                    rotational_axis = rotational_slice = -1;
+                    nextTurn();
+                }
+
+                break;
+            }
+
+            case NOCCubeRenderer.SOLVED: {
+                alpha = sep_velocity / INIT_SEP_VELOCITY;
+                sep_velocity += SEP_ACCELERATION * dt;
+
+                if (sep_velocity <= 0.0f) {
+                    alpha = 0.0f;
+                    setAnimationState(NOCCubeRenderer.COMPLETE, 0);
+                }
+
+                break;
+            }
+
+            case NOCCubeRenderer.COMPLETE: {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void render(final float[] vpMatrix, final ShaderProgram program, final float interpolation) {
+        if (animation_state == NOCCubeRenderer.COMPLETE) return;
+        Metrics.begin(Metrics.MATRICES);
+
+        System.arraycopy(vpMatrix, 0, rvpMatrix, 0, 16);
+
+        // In between the last two updates
+        final float seperation = prev_seperation + (this.seperation - prev_seperation) * interpolation;
+        final float alpha = prev_alpha + (this.alpha - prev_alpha) * interpolation;
+
+        // scale (swelling by the seperation while scrambling)
+        float scale = 1.0f/(float)d;
+        if (animation_state == NOCCubeRenderer.EXPAND || animation_state == NOCCubeRenderer.CONTRACT) {
+            scale *= seperation / NOCCubeRenderer.INIT_SEPERATION;
+        }
+        Matrix4.scaleM(rvpMatrix, 0, scale, scale, scale);
+
+        if (animation_state == NOCCubeRenderer.ROTATING) {
+            turn(prev_rotational_angle + (rotational_angle - prev_rotational_angle) * interpolation);
+        }
+        Metrics.end(Metrics.MATRICES);
+
+        Metrics.begin(Metrics.SUBMIT);
+        drawGrid(alpha);
+
+        for (int i = 0; i < coreCount; i++) {
+            Matrix4.multiplyMM(mvpMatrix, 0, rvpMatrix, 0, cores, 16*i);
+            core.draw(mvpMatrix, program, alpha);
+        }
+        Metrics.end(Metrics.SUBMIT);
+    }
+
+    // Turns the turning slice (and its core) by angle
+    private void turn(final float angle) {
+        final float x = rotational_axis == NOCCube.AXIS_X ? direction : 0.0f;
+        final float y = rotational_axis == NOCCube.AXIS_Y ? direction : 0.0f;
+        final float z = rotational_axis == NOCCube.AXIS_Z ? direction : 0.0f;
+
+        Matrix4.setRotateM(rotationMatrix, 0, angle, x, y, z);
+        Matrix4.multiplyMM(cores, 16*turningCore, rotationMatrix, 0, turningCoreMatrix, 0);
+    }
+
+    // ---
+
+    private void refreshAll() {
+        for (int cell = 0; cell < 6*cells; cell++) refreshCell(cell);
+    }
+
+    // Refreshes the stickers of every cell of a slice (after it has turned)
+    private void refreshSlice(final int axis, final int slice) {
+        final int stride = axis == NOCCube.AXIS_X ? 1 : axis == NOCCube.AXIS_Y ? d : d*d;
+
+        for (int cell = 0; cell < 6*cells; cell++) {
+            if ((cellPositions[cell] / stride) % d == slice) refreshCell(cell);
+        }
+    }
+
+    // Works out which sticker the cube behind a cell shows through it
+    private void refreshCell(final int cell) {
+        final int face = cell / cells;
+        final int i = cellPositions[cell];
+        final int x = i % d, y = (i / d) % d, z = i / (d*d);
+
+        // Face of the cube mesh now facing out through the cell (the orientation transposed,
+        // applied to the face's normal), and where the cube started
+        final int R[] = Orientation.matrix(shown.getOrientation(x, y, z));
+        final float n[] = CubeBatch.FACES[face];
+        final int local = CubeBatch.faceFacing(
+            R[0]*n[0] + R[1]*n[1] + R[2]*n[2],
+            R[3]*n[0] + R[4]*n[1] + R[5]*n[2],
+            R[6]*n[0] + R[7]*n[1] + R[8]*n[2]
+        );
+
+        final int h = shown.getDisplayHandle(x, y, z);
+        final int hx = h % d, hy = (h / d) % d, hz = h / (d*d);
+        final float L[] = CubeBatch.FACES[local];
+        final float column = hx*L[3] + hy*L[4] + hz*L[5] + L[6]*(d-1);
+        final float row    = hx*L[7] + hy*L[8] + hz*L[9] + L[10]*(d-1);
+
+        for (int k = 0; k < 4; k++) {
+            // The corner of the local face that lands on this corner of the cell
+            final int v = 3*(4*face + k);
+            final float cx = R[0]*Cube.vertices[v] + R[1]*Cube.vertices[v+1] + R[2]*Cube.vertices[v+2];
+            final float cy = R[3]*Cube.vertices[v] + R[4]*Cube.vertices[v+1] + R[5]*Cube.vertices[v+2];
+            final float cz = R[6]*Cube.vertices[v] + R[7]*Cube.vertices[v+1] + R[8]*Cube.vertices[v+2];
+
+            int corner = 0;
+            for (int j = 0; j < 4; j++) {
+                final int w = 3*(4*local + j);
+                if (Cube.vertices[w] == cx && Cube.vertices[w+1] == cy && Cube.vertices[w+2] == cz) corner = j;
+            }
+
+            final int s = STICKER_SIZE * (4*cell + k);
+            stickers.put(s, column).put(s + 1, row).put(s + 2, local).put(s + 3, corner);
+        }
+
+        if (!dirty[cell]) {
+            dirty[cell] = true;
+            dirtyCount++;
+        }
+    }
+
+    // Splits the cells of the turning slice (if any) from the rest, for every face it (or the
+    // last slice split out) touches, or every face
+    private void buildIndices(final int axis, final int slice, final boolean every) {
+        final int stride = axis == NOCCube.AXIS_X ? 1 : axis == NOCCube.AXIS_Y ? d : d*d;
+
+        for (int face = 0; face < 6; face++) {
+            boolean touched = every || turningCounts[face] > 0;
+            for (int c = 0; c < cells && !touched && axis >= 0; c++) {
+                touched = (cellPositions[face*cells + c] / stride) % d == slice;
+            }
+            if (!touched) continue;
+
+            int first = 6*cells*face;
+            int last = 6*cells*(face + 1);
+
+            for (int c = 0; c < cells; c++) {
+                final boolean turning = axis >= 0 && (cellPositions[face*cells + c] / stride) % d == slice;
+                final int at = turning ? (last -= 6) : first;
+                if (!turning) first += 6;
+
+                indices.put(at,     (short) (4*c)).put(at + 1, (short) (4*c + 1)).put(at + 2, (short) (4*c + 2));
+                indices.put(at + 3, (short) (4*c)).put(at + 4, (short) (4*c + 2)).put(at + 5, (short) (4*c + 3));
+            }
+
+            staticCounts[face] = first - 6*cells*face;
+            turningCounts[face] = 6*cells - staticCounts[face];
+            indicesChanged[face] = true;
+        }
+
+        indexedAxis = axis;
+        indexedSlice = slice;
+    }
+
+    // ---
+
+    private void initialise() {
+        final RenderBackend gl = GL.backend();
+
+        program = new ShaderProgram(vertexShaderCode, fragmentShaderCode,
+                new String[] {"uVPMatrix", "uModel", "uD", "uRects"},
+                new String[] {"aSticker"});
+        vpMatrixHandle = program.uniform("uVPMatrix");
+        modelHandle = program.uniform("uModel");
+        dHandle = program.uniform("uD");
+        rectsHandle = program.uniform("uRects");
+        stickerHandle = program.attribute("aSticker");
+
+        // Cells are the faces of the packed cubes (see NOCCubeRenderer.setCubePosition)
+        final FloatBuffer positions = allocateFloats(6 * 4*cells * 3);
+        final float diff = (d - 1.0f) / 2.0f;
+        for (int cell = 0; cell < 6*cells; cell++) {
+            final int i = cellPositions[cell];
+            final float x = NOCCubeRenderer.INIT_SEPERATION * (i % d - diff);
+            final float y = NOCCubeRenderer.INIT_SEPERATION * ((i / d) % d - diff);
+            final float z = NOCCubeRenderer.INIT_SEPERATION * (i / (d*d) - diff);
+
+            for (int k = 0; k < 4; k++) {
+                final int v = 3*(4*(cell / cells) + k);
+                positions.put(x + Cube.vertices[v]).put(y + Cube.vertices[v+1]).put(z + Cube.vertices[v+2]);
+            }
+        }
+
+        gl.glGenBuffers(buffers.length, buffers, 0);
+        gl.glBindBuffer(RenderBackend.GL_ARRAY_BUFFER, buffers[0]);
+        gl.glBufferData(RenderBackend.GL_ARRAY_BUFFER, positions.capacity() * Geometry.FLOAT_SIZE, positions.position(0), RenderBackend.GL_STATIC_DRAW);
+        gl.glBindBuffer(RenderBackend.GL_ARRAY_BUFFER, buffers[1]);
+        gl.glBufferData(RenderBackend.GL_ARRAY_BUFFER, stickers.capacity() * Geometry.FLOAT_SIZE, stickers.position(0), RenderBackend.GL_DYNAMIC_DRAW);
+        java.util.Arrays.fill(dirty, false);
+        dirtyCount = 0;
+
+        gl.glBindBuffer(RenderBackend.GL_ELEMENT_ARRAY_BUFFER, buffers[2]);
+        java.util.Arrays.fill(indicesChanged, false);
+        gl.glBufferData(RenderBackend.GL_ELEMENT_ARRAY_BUFFER, indices.capacity() * Geometry.SHORT_SIZE, indices.position(0), RenderBackend.GL_DYNAMIC_DRAW);
+
+        generation = Geometry.generation();
+    }
+
+    private void drawGrid(final float alpha) {
+        final RenderBackend gl = GL.backend();
+        if (generation != Geometry.generation()) initialise();
+
+        program.use();
+        gl.glUniformMatrix4fv(vpMatrixHandle, 1, false, rvpMatrix, 0);
+        gl.glUniformMatrix4fv(modelHandle, 1, false, identityMatrix, 0);
+        gl.glUniform1f(dHandle, d);
+        gl.glUniform4fv(rectsHandle, 6, rects, 0);
+        gl.glUniform1i(program.texUniformHandle, 0);
+        gl.glUniform1f(program.alphaUniformHandle, alpha);
+        faces[0].bind(); // NOTE: every face is from the same atlas
+
+        // Only the cells that changed since the last frame, a run of them at a time
+        if (dirtyCount > 0) {
+            gl.glBindBuffer(RenderBackend.GL_ARRAY_BUFFER, buffers[1]);
+            for (int cell = 0; cell < 6*cells; cell++) {
+                if (!dirty[cell]) continue;
+
+                int end = cell;
+                while (end < 6*cells && dirty[end]) dirty[end++] = false;
+
+                final int first = STICKER_SIZE * 4 * cell;
+                final int size = STICKER_SIZE * 4 * (end - cell);
+                gl.glBufferSubData(RenderBackend.GL_ARRAY_BUFFER, first * Geometry.FLOAT_SIZE, size * Geometry.FLOAT_SIZE, stickers.position(first));
+                cell = end;
+            }
+            dirtyCount = 0;
+        }
+
+        gl.glBindBuffer(RenderBackend.GL_ELEMENT_ARRAY_BUFFER, buffers[2]);
+        if (indexedAxis != rotational_axis || indexedSlice != rotational_slice) {
+            buildIndices(rotational_axis, rotational_slice, false);
+        }
+        for (int face = 0; face < 6; face++) {
+            if (!indicesChanged[face]) continue;
+
+            final int first = 6*cells*face;
+            gl.glBufferSubData(RenderBackend.GL_ELEMENT_ARRAY_BUFFER, first * Geometry.SHORT_SIZE, 6*cells * Geometry.SHORT_SIZE, indices.position(first));
+            indicesChanged[face] = false;
+        }
+
+        gl.glEnableVertexAttribArray(program.positionHandle);
+        gl.glEnableVertexAttribArray(stickerHandle);
+
+        for (int face = 0; face < 6; face++) {
+            drawCells(face, 0, staticCounts[face]);
+        }
+        if (rotational_axis >= 0) {
+            gl.glUniformMatrix4fv(modelHandle, 1, false, rotationMatrix, 0);
+            for (int face = 0; face < 6; face++) {
+                drawCells(face, staticCounts[face], turningCounts[face]);
+            }
+        }
+
+        gl.glDisableVertexAttribArray(program.positionHandle);
+        gl.glDisableVertexAttribArray(stickerHandle);
+    }
+
+    // Draws n indices from first of a face's indices
+    private void drawCells(final int face, final int first, final int n) {
+        if (n == 0) return;
+
+        // Indices count from the face's first vertex, so point the attributes at it
+        final RenderBackend gl = GL.backend();
+        gl.glBindBuffer(RenderBackend.GL_ARRAY_BUFFER, buffers[0]);
+        gl.glVertexAttribPointer(program.positionHandle, 3, RenderBackend.GL_FLOAT, false, 0, 4*cells*face * 3 * Geometry.FLOAT_SIZE);
+        gl.glBindBuffer(RenderBackend.GL_ARRAY_BUFFER, buffers[1]);
+        gl.glVertexAttribPointer(stickerHandle, STICKER_SIZE, RenderBackend.GL_FLOAT, false, 0, 4*cells*face * STICKER_SIZE * Geometry.FLOAT_SIZE);
+
+        gl.glDrawElements(RenderBackend.GL_TRIANGLES, n, RenderBackend.GL_UNSIGNED_SHORT, (6*cells*face + first) * Geometry.SHORT_SIZE);
+    }
+
+    private static FloatBuffer allocateFloats(final int n) {
+        return ByteBuffer.allocateDirect(n * Geometry.FLOAT_SIZE).order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    private static ShortBuffer allocateShorts(final int n) {
+        return ByteBuffer.allocateDirect(n * Geometry.SHORT_SIZE).order(ByteOrder.nativeOrder()).asShortBuffer();
+    }
+}
@@ -0,0 +1,17 @@
+package com.dramacow.noccube;
+
+// The backend every GL call goes through (set by whoever owns the context, before anything is drawn)
+public final class GL {
+
+    private static RenderBackend backend;
+
+    private GL() {}
+
+    public static RenderBackend backend() {
+        return backend;
+    }
+
+    public static void setBackend(final RenderBackend backend) {
+        GL.backend = backend;
+    }
+}
@@ -0,0 +1,101 @@
+package com.dramacow.noccube;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Vertex and index buffers shared by every Cube and Quad. The meshes (which never change) are
+// uploaded to the GPU once, texture co-ordinates (the only data that differs between instances)
+// are packed after them and referenced by offset. Everything is recreated after the GL context
+// is lost (see invalidate).
+final class Geometry {
+
+    public static final int FLOAT_SIZE = 4;
+    public static final int SHORT_SIZE = 2;
+
+    // Offsets (in floats) of each block of the vertex buffer
+    public static final int CUBE_VERTICES = 0;
+    public static final int QUAD_VERTICES = CUBE_VERTICES + Cube.vertices.length;
+    public static final int CUBE_COLOURS  = QUAD_VERTICES + Quad.vertices.length;
+    public static final int QUAD_COLOURS  = CUBE_COLOURS + Cube.colours.length;
+    private static final int TEX_COORDS   = QUAD_COLOURS + Quad.colours.length;
+
+    // Offsets (in shorts) of each mesh in the index buffer
+    public static final int CUBE_INDICES = 0;
+    public static final int QUAD_INDICES = CUBE_INDICES + Cube.indices.length;
+
+    private static final int buffers[] = new int[2]; // Vertices, indices
+
+    private static int generation = 1; // Bumped whenever the context (and every buffer with it) is lost
+    private static int uploaded = 0;   // Generation the buffers were created in
+
+    // Texture co-ordinates of every instance, deduplicated since most instances share them
+    private static final List<float[]> texCoords = new ArrayList<float[]>();
+    private static int texCoordsSize = 0;     // Total floats in texCoords
+    private static int texCoordsUploaded = 0; // How many of them are in the vertex buffer
+
+    private Geometry() {}
+
+    // Adds a set of texture co-ordinates, returning its offset (in floats) within the vertex buffer.
+    // NOTE: may be called from any thread, the data is uploaded on the next bind.
+    public static synchronized int addTexCoords(final float[] coords) {
+        int offset = TEX_COORDS;
+        for (float[] existing : texCoords) {
+            if (Arrays.equals(existing, coords)) return offset;
+            offset += existing.length;
+        }
+
+        texCoords.add(coords.clone());
+        texCoordsSize += coords.length;
+        return offset;
+    }
+
+    // To be called when the GL context is (re)created, as every buffer in the old one is gone
+    public static synchronized void invalidate() {
+        generation++;
+    }
+
+    public static synchronized int generation() {
+        return generation;
+    }
+
+    // Binds the shared buffers, first uploading anything missing from them (GL thread only)
+    public static synchronized void bind() {
+        final RenderBackend gl = GL.backend();
+
+        if (uploaded != generation) {
+            gl.glGenBuffers(buffers.length, buffers, 0);
+
+            final ShortBuffer indices = ByteBuffer.allocateDirect((Cube.indices.length + Quad.indices.length) * SHORT_SIZE)
+                .order(ByteOrder.nativeOrder()).asShortBuffer();
+            indices.put(Cube.indices).put(Quad.indices).position(0);
+
+            gl.glBindBuffer(RenderBackend.GL_ELEMENT_ARRAY_BUFFER, buffers[1]);
+            gl.glBufferData(RenderBackend.GL_ELEMENT_ARRAY_BUFFER, indices.capacity() * SHORT_SIZE, indices, RenderBackend.GL_STATIC_DRAW);
+
+            uploaded = generation;
+            texCoordsUploaded = -1;
+        }
+
+        gl.glBindBuffer(RenderBackend.GL_ARRAY_BUFFER, buffers[0]);
+        gl.glBindBuffer(RenderBackend.GL_ELEMENT_ARRAY_BUFFER, buffers[1]);
+
+        // Only re-sent when new texture co-ordinates have been added (rare, and tiny)
+        if (texCoordsUploaded != texCoordsSize) {
+            final FloatBuffer vertices = ByteBuffer.allocateDirect((TEX_COORDS + texCoordsSize) * FLOAT_SIZE)
+                .order(ByteOrder.nativeOrder()).asFloatBuffer();
+            vertices.put(Cube.vertices).put(Quad.vertices).put(Cube.colours).put(Quad.colours);
+            for (float[] coords : texCoords) {
+                vertices.put(coords);
+            }
+            vertices.position(0);
+
+            gl.glBufferData(RenderBackend.GL_ARRAY_BUFFER, vertices.capacity() * FLOAT_SIZE, vertices, RenderBackend.GL_STATIC_DRAW);
+            texCoordsUploaded = texCoordsSize;
+        }
+    }
+}
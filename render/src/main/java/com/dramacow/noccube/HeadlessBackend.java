@@ -0,0 +1,277 @@
+package com.dramacow.noccube;
+
+import java.nio.Buffer;
+
+// Backend without a GPU: every call succeeds and does nothing except count what a real context
+// would have been asked to do. Used to test and benchmark the CPU side of rendering on the JVM.
+public class HeadlessBackend implements RenderBackend {
+
+    private final boolean instancing;
+    private final int maxVertexUniformVectors;
+
+    // Handles given out so far (0 is never a valid object)
+    private int objects = 0;
+    private int locations = 0;
+
+    // Counters, since the last reset()
+    public int drawCalls;     // glDrawElements*
+    public long instances;    // Cubes drawn by instanced calls (1 per call otherwise)
+    public long indices;      // Indices drawn, over every instance
+    public int stateChanges;  // Program, buffer and texture binds, enables, blend and attribute array changes
+    public int textureBinds;
+    public int uniformUploads;
+    public long uploadedBytes; // Buffer data, uniform values and compressed textures sent
+
+    // Extensions the context claims to have, separated by spaces
+    public String extensions = "";
+
+    // Current state
+    public int boundTexture = 0;
+    public int currentProgram = 0;
+    public int minFilter = 0; // Of the last texture set up (0 until one is)
+    public int maxLevel = 1000;  // GL's default
+
+    // By default, the least an OpenGL ES 2.0 device has to offer
+    public HeadlessBackend() {
+        this(false, 128);
+    }
+
+    public HeadlessBackend(final boolean instancing, final int maxVertexUniformVectors) {
+        this.instancing = instancing;
+        this.maxVertexUniformVectors = maxVertexUniformVectors;
+    }
+
+    public void reset() {
+        drawCalls = 0;
+        instances = 0;
+        indices = 0;
+        stateChanges = 0;
+        textureBinds = 0;
+        uniformUploads = 0;
+        uploadedBytes = 0;
+    }
+
+    private static int bytes(final Buffer data, final int size) {
+        return data != null ? size : 0;
+    }
+
+    @Override
+    public boolean supportsInstancing() {
+        return instancing;
+    }
+
+    // State
+    @Override
+    public void glClearColor(final float red, final float green, final float blue, final float alpha) {}
+
+    @Override
+    public void glClear(final int mask) {}
+
+    @Override
+    public void glViewport(final int x, final int y, final int width, final int height) {}
+
+    @Override
+    public void glEnable(final int cap) {
+        stateChanges++;
+    }
+
+    @Override
+    public void glBlendFunc(final int sfactor, final int dfactor) {
+        stateChanges++;
+    }
+
+    @Override
+    public void glGetIntegerv(final int pname, final int[] params, final int offset) {
+        if (pname == GL_MAX_VERTEX_UNIFORM_VECTORS) params[offset] = maxVertexUniformVectors;
+    }
+
+    @Override
+    public String glGetString(final int name) {
+        if (name == GL_VERSION) return instancing ? "OpenGL ES 3.0 (headless)" : "OpenGL ES 2.0 (headless)";
+        if (name == GL_EXTENSIONS) return extensions;
+        return "";
+    }
+
+    // Shaders
+    @Override
+    public int glCreateShader(final int type) {
+        return ++objects;
+    }
+
+    @Override
+    public void glShaderSource(final int shader, final String string) {}
+
+    @Override
+    public void glCompileShader(final int shader) {}
+
+    @Override
+    public void glGetShaderiv(final int shader, final int pname, final int[] params, final int offset) {
+        params[offset] = 1; // Everything compiles
+    }
+
+    @Override
+    public String glGetShaderInfoLog(final int shader) {
+        return "";
+    }
+
+    @Override
+    public void glDeleteShader(final int shader) {}
+
+    @Override
+    public int glCreateProgram() {
+        return ++objects;
+    }
+
+    @Override
+    public void glAttachShader(final int program, final int shader) {}
+
+    @Override
+    public void glLinkProgram(final int program) {}
+
+    @Override
+    public void glGetProgramiv(final int program, final int pname, final int[] params, final int offset) {
+        params[offset] = 1; // Everything links
+    }
+
+    @Override
+    public String glGetProgramInfoLog(final int program) {
+        return "";
+    }
+
+    @Override
+    public void glDeleteProgram(final int program) {}
+
+    @Override
+    public void glUseProgram(final int program) {
+        currentProgram = program;
+        stateChanges++;
+    }
+
+    @Override
+    public int glGetUniformLocation(final int program, final String name) {
+        return locations++;
+    }
+
+    @Override
+    public int glGetAttribLocation(final int program, final String name) {
+        final int location = locations;
+        locations += 4; // Room for a mat4 (which takes one location per column)
+        return location;
+    }
+
+    // Uniforms
+    @Override
+    public void glUniform1i(final int location, final int x) {
+        uniformUploads++;
+        uploadedBytes += 4;
+    }
+
+    @Override
+    public void glUniform1f(final int location, final float x) {
+        uniformUploads++;
+        uploadedBytes += 4;
+    }
+
+    @Override
+    public void glUniform4f(final int location, final float x, final float y, final float z, final float w) {
+        uniformUploads++;
+        uploadedBytes += 16;
+    }
+
+    @Override
+    public void glUniform4fv(final int location, final int count, final float[] v, final int offset) {
+        uniformUploads++;
+        uploadedBytes += 16 * count;
+    }
+
+    @Override
+    public void glUniformMatrix4fv(final int location, final int count, final boolean transpose, final float[] value, final int offset) {
+        uniformUploads++;
+        uploadedBytes += 64 * count;
+    }
+
+    // Buffers
+    @Override
+    public void glGenBuffers(final int n, final int[] buffers, final int offset) {
+        for (int i = 0; i < n; i++) buffers[offset + i] = ++objects;
+    }
+
+    @Override
+    public void glBindBuffer(final int target, final int buffer) {
+        stateChanges++;
+    }
+
+    @Override
+    public void glBufferData(final int target, final int size, final Buffer data, final int usage) {
+        uploadedBytes += bytes(data, size);
+    }
+
+    @Override
+    public void glBufferSubData(final int target, final int offset, final int size, final Buffer data) {
+        uploadedBytes += bytes(data, size);
+    }
+
+    // Attributes
+    @Override
+    public void glEnableVertexAttribArray(final int index) {
+        stateChanges++;
+    }
+
+    @Override
+    public void glDisableVertexAttribArray(final int index) {
+        stateChanges++;
+    }
+
+    @Override
+    public void glVertexAttribPointer(final int index, final int size, final int type, final boolean normalized, final int stride, final int offset) {}
+
+    @Override
+    public void glVertexAttribDivisor(final int index, final int divisor) {
+        if (!instancing) throw new IllegalStateException("glVertexAttribDivisor needs OpenGL ES 3.0");
+        stateChanges++;
+    }
+
+    // Textures
+    @Override
+    public void glGenTextures(final int n, final int[] textures, final int offset) {
+        for (int i = 0; i < n; i++) textures[offset + i] = ++objects;
+    }
+
+    @Override
+    public void glBindTexture(final int target, final int texture) {
+        boundTexture = texture;
+        textureBinds++;
+        stateChanges++;
+    }
+
+    @Override
+    public void glTexParameteri(final int target, final int pname, final int param) {
+        if (pname == GL_TEXTURE_MIN_FILTER) minFilter = param;
+        if (pname == GL_TEXTURE_MAX_LEVEL) maxLevel = param;
+    }
+
+    @Override
+    public void glCompressedTexImage2D(final int target, final int level, final int internalformat, final int width, final int height,
+                                       final int border, final int imageSize, final Buffer data) {
+        uploadedBytes += bytes(data, imageSize);
+    }
+
+    @Override
+    public void glGenerateMipmap(final int target) {}
+
+    // Drawing
+    @Override
+    public void glDrawElements(final int mode, final int count, final int type, final int offset) {
+        drawCalls++;
+        instances++;
+        indices += count;
+    }
+
+    @Override
+    public void glDrawElementsInstanced(final int mode, final int count, final int type, final int offset, final int instanceCount) {
+        if (!instancing) throw new IllegalStateException("glDrawElementsInstanced needs OpenGL ES 3.0");
+        drawCalls++;
+        instances += instanceCount;
+        indices += (long) count * instanceCount;
+    }
+}
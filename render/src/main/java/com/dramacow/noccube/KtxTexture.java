@@ -0,0 +1,132 @@
+package com.dramacow.noccube;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// A compressed texture (and its mipmaps) read from a KTX 1 container, uploaded straight from the
+// file's bytes with nothing decoded on the CPU (layout as the Khronos KTX 1.0 specification)
+public final class KtxTexture {
+
+    private static final byte IDENTIFIER[] = {
+        (byte) 0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte) 0xBB, '\r', '\n', 0x1A, '\n'
+    };
+    private static final int HEADER_SIZE = 64;
+    private static final int ENDIANNESS = 0x04030201;
+
+    public final int internalFormat;
+    public final int width, height;
+    public final int levels;
+
+    private final ByteBuffer data;
+    private final int offsets[]; // Of each level's image within data
+    private final int sizes[];
+
+    public KtxTexture(final ByteBuffer file) {
+        data = file.slice();
+
+        for (int i = 0; i < IDENTIFIER.length; i++) {
+            if (data.limit() < HEADER_SIZE || data.get(i) != IDENTIFIER[i]) {
+                throw new IllegalArgumentException("Error: not a KTX 1 file");
+            }
+        }
+
+        // NOTE: the file says which byte order it was written in, by how this reads back
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        if (data.getInt(12) != ENDIANNESS) data.order(ByteOrder.BIG_ENDIAN);
+
+        final int glType = data.getInt(16);
+        internalFormat = data.getInt(28);
+        width = data.getInt(36);
+        height = data.getInt(40);
+        final int depth = data.getInt(44);
+        final int arrayElements = data.getInt(48);
+        final int faces = data.getInt(52);
+        levels = Math.max(1, data.getInt(56));
+        final int keyValueBytes = data.getInt(60);
+
+        if (glType != 0 || depth != 0 || arrayElements != 0 || faces != 1) {
+            throw new IllegalArgumentException("Error: only compressed 2D KTX textures are supported");
+        }
+
+        offsets = new int[levels];
+        sizes = new int[levels];
+        int offset = HEADER_SIZE + keyValueBytes;
+        for (int level = 0; level < levels; level++) {
+            if (offset + 4 > data.limit()) throw new IllegalArgumentException("Error: KTX file truncated");
+
+            sizes[level] = data.getInt(offset);
+            offsets[level] = offset + 4;
+            offset += 4 + ((sizes[level] + 3) & ~3); // Each level padded to 4 bytes
+
+            if (offsets[level] + sizes[level] > data.limit()) throw new IllegalArgumentException("Error: KTX file truncated");
+        }
+    }
+
+    // Whether the current context can sample this format
+    public boolean isSupported() {
+        return isSupported(internalFormat);
+    }
+
+    public static boolean isSupported(final int internalFormat) {
+        if (internalFormat == RenderBackend.GL_ETC1_RGB8_OES) return isEs3() || hasEtc1();
+        if (internalFormat == RenderBackend.GL_COMPRESSED_RGB8_ETC2 || internalFormat == RenderBackend.GL_COMPRESSED_RGBA8_ETC2_EAC) return isEs3();
+        return false;
+    }
+
+    // Whether every level down to 1x1 is there, which sampling between mipmaps needs
+    public boolean hasMipmaps() {
+        return levels > 1 && (Math.max(width, height) >> (levels - 1)) == 1;
+    }
+
+    // Uploads every level into a new texture, returning it
+    public int upload() {
+        final int textureHandle[] = new int[1];
+
+        GL.backend().glGenTextures(1, textureHandle, 0);
+        if (textureHandle[0] == 0) throw new RuntimeException("Error loading texture.");
+
+        upload(textureHandle[0]);
+        return textureHandle[0];
+    }
+
+    // Uploads every level into texture (leaving it bound). Trilinear filtered given every mipmap, or
+    // on OpenGL ES 3.0 given any (sampling stops at the last, e.g. while tiles of an atlas still
+    // cover a few texels). Otherwise only the first level is sampled.
+    public void upload(final int texture) {
+        final RenderBackend gl = GL.backend();
+        gl.glBindTexture(RenderBackend.GL_TEXTURE_2D, texture);
+        TextureRegion.invalidateBinding();
+
+        final boolean shortChain = levels > 1 && !hasMipmaps() && isEs3();
+        gl.glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_MIN_FILTER,
+                hasMipmaps() || shortChain ? RenderBackend.GL_LINEAR_MIPMAP_LINEAR : RenderBackend.GL_LINEAR);
+        if (shortChain) gl.glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_MAX_LEVEL, levels - 1);
+        gl.glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_MAG_FILTER, RenderBackend.GL_LINEAR);
+        gl.glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_WRAP_S, RenderBackend.GL_CLAMP_TO_EDGE);
+        gl.glTexParameteri(RenderBackend.GL_TEXTURE_2D, RenderBackend.GL_TEXTURE_WRAP_T, RenderBackend.GL_CLAMP_TO_EDGE);
+
+        // NOTE: ETC2 decoders read ETC1 too, so OpenGL ES 3.0 takes ETC1 data without the extension
+        final int format = internalFormat == RenderBackend.GL_ETC1_RGB8_OES && !hasEtc1()
+                ? RenderBackend.GL_COMPRESSED_RGB8_ETC2 : internalFormat;
+
+        for (int level = 0; level < levels; level++) {
+            final ByteBuffer image = data.duplicate();
+            image.position(offsets[level]);
+            image.limit(offsets[level] + sizes[level]);
+
+            gl.glCompressedTexImage2D(RenderBackend.GL_TEXTURE_2D, level, format,
+                    Math.max(1, width >> level), Math.max(1, height >> level), 0, sizes[level], image.slice());
+        }
+    }
+
+    // Whether the current context is OpenGL ES 3.0 (or later)
+    public static boolean isEs3() {
+        final String version = GL.backend().glGetString(RenderBackend.GL_VERSION);
+        return version != null && version.startsWith("OpenGL ES 3.");
+    }
+
+    private static boolean hasEtc1() {
+        final String extensions = GL.backend().glGetString(RenderBackend.GL_EXTENSIONS);
+        return extensions != null && extensions.contains("GL_OES_compressed_ETC1_RGB8_texture");
+    }
+}
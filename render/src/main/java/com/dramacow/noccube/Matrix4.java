@@ -0,0 +1,66 @@
+package com.dramacow.noccube;
+
+// The few android.opengl.Matrix operations the renderers need, in plain Java so they also run
+// off-device. Same conventions: 4x4 column-major float arrays at an offset, angles in degrees.
+public final class Matrix4 {
+
+    private Matrix4() {}
+
+    public static void setIdentityM(final float[] m, final int offset) {
+        for (int i = 0; i < 16; i++) m[offset + i] = 0.0f;
+        for (int i = 0; i < 16; i += 5) m[offset + i] = 1.0f;
+    }
+
+    // m = m * translation
+    public static void translateM(final float[] m, final int offset, final float x, final float y, final float z) {
+        for (int i = 0; i < 4; i++) {
+            m[offset + 12 + i] += m[offset + i] * x + m[offset + 4 + i] * y + m[offset + 8 + i] * z;
+        }
+    }
+
+    // m = m * scale
+    public static void scaleM(final float[] m, final int offset, final float x, final float y, final float z) {
+        for (int i = 0; i < 4; i++) {
+            m[offset + i]     *= x;
+            m[offset + 4 + i] *= y;
+            m[offset + 8 + i] *= z;
+        }
+    }
+
+    // Rotation of a degrees around the axis (x, y, z)
+    public static void setRotateM(final float[] m, final int offset, final float a, float x, float y, float z) {
+        final float length = (float) Math.sqrt(x*x + y*y + z*z);
+        if (length != 1.0f) {
+            x /= length; y /= length; z /= length;
+        }
+
+        final float radians = (float) Math.toRadians(a);
+        final float s = (float) Math.sin(radians);
+        final float c = (float) Math.cos(radians);
+        final float nc = 1.0f - c;
+
+        m[offset]      = x*x*nc + c;   m[offset + 4]  = x*y*nc - z*s; m[offset + 8]  = z*x*nc + y*s; m[offset + 12] = 0.0f;
+        m[offset + 1]  = x*y*nc + z*s; m[offset + 5]  = y*y*nc + c;   m[offset + 9]  = y*z*nc - x*s; m[offset + 13] = 0.0f;
+        m[offset + 2]  = z*x*nc - y*s; m[offset + 6]  = y*z*nc + x*s; m[offset + 10] = z*z*nc + c;   m[offset + 14] = 0.0f;
+        m[offset + 3]  = 0.0f;         m[offset + 7]  = 0.0f;         m[offset + 11] = 0.0f;         m[offset + 15] = 1.0f;
+    }
+
+    // result = lhs * rhs
+    // NOTE: result must not overlap either input
+    public static void multiplyMM(final float[] result, final int resultOffset,
+                                  final float[] lhs, final int lhsOffset,
+                                  final float[] rhs, final int rhsOffset) {
+        for (int column = 0; column < 4; column++) {
+            final float x = rhs[rhsOffset + 4*column];
+            final float y = rhs[rhsOffset + 4*column + 1];
+            final float z = rhs[rhsOffset + 4*column + 2];
+            final float w = rhs[rhsOffset + 4*column + 3];
+
+            for (int row = 0; row < 4; row++) {
+                result[resultOffset + 4*column + row] =
+                    lhs[lhsOffset + row] * x + lhs[lhsOffset + 4 + row] * y +
+                    lhs[lhsOffset + 8 + row] * z + lhs[lhsOffset + 12 + row] * w;
+            }
+        }
+    }
+}
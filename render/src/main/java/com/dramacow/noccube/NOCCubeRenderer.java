@@ -0,0 +1,380 @@
+package com.dramacow.noccube;
+
+public class NOCCubeRenderer implements PuzzleRenderer {
+
+    public final NOCCube noccube;
+
+    // Moves are made on noccube straight away (so it always knows whether it is solved), and are
+    // queued to be animated. What is drawn is shown, which lags behind by the queued moves.
+    static final int MAX_QUEUED_MOVES = 8;
+    private final MoveQueue moves = new MoveQueue(MAX_QUEUED_MOVES);
+    private final NOCCube shown;
+
+    // Graphics, all cubes are drawn together from one shared mesh (and placed on the GPU, from
+    // their position and orientation, see CubeBatch.setCube)
+    final CubeBatch batch;
+
+    // Scratch matrices, so drawing a frame allocates nothing
+    private final float rvpMatrix[] = new float[16];
+    private final float rotationMatrix[] = new float[16];
+    private final float tmpMatrix[] = new float[16];
+
+    // Boxes filling the core while the cubes are packed together (see CubeBatch.drawShell), so the
+    // gaps between the outer faces show the inside texture rather than the background
+    static final float CORE_INSET = 0.0625f; // How far inside the outer faces the boxes are
+    private final float cores[] = new float[16*CubeBatch.MAX_CORES];
+    private int coreCount = 0;
+    private int turningCore;                           // Core of the turning slice
+    private final float turningCoreMatrix[] = new float[16]; // ...before it is turned
+
+    // Animation variables
+    public static final int IDLE       = 0;
+    public static final int EXPAND     = 1; // \__ used in
+    public static final int CONTRACT   = 2; // /   scrambling
+    public static final int ROTATING   = 4;
+    public static final int SOLVED     = 5;
+    public static final int COMPLETE   = 6;
+
+    private int animation_state = EXPAND;
+
+    // Rotation variables
+    private int rotational_axis;
+    private int rotational_slice;
+    private float rotational_angle;
+    private float prev_rotational_angle; // Before the last update, to draw in between
+    private float turn_angle; // 90 or 180, when moves of the same slice are turned together
+    private float direction;
+    private float angular_speed = (float) Math.toDegrees(4.0*Math.PI);
+
+    // Seperation variables (and constants)
+    static final float INIT_SEPERATION = 2.125f;
+    private static final float INIT_SEP_VELOCITY = 128.0f;
+    static final float SEP_ACCELERATION = -240.0f; // Per second
+    private float seperation = 2.0f;
+    private float sep_velocity = INIT_SEP_VELOCITY;
+    private float alpha = 1.0f;
+    private float prev_seperation = seperation, prev_alpha = alpha;
+
+    // Normals used in ray casting
+    public static float normal[] = {
+        0.0f, 0.0f, 1.0f, // front face
+        0.0f, 0.0f, -1.0f, // back face
+        -1.0f, 0.0f, 0.0f, // left face
+        1.0f, 0.0f, 0.0f, // right face
+        0.0f, 1.0f, 0.0f, // top face
+        0.0f, -1.0f, 0.0f // bottom face
+    };
+
+    // This version fills the center of noccube with blank cubes, though while they are packed
+    // together only the outside (and whatever a turning slice exposes) is drawn
+    public NOCCubeRenderer(final NOCCube noccube, final TextureRegion blank, final TextureRegion tex[]) {
+        this.noccube = noccube;
+        if (noccube != null) {
+            shown = new NOCCube(noccube.d);
+            shown.set(noccube);
+        } else {
+            shown = null;
+        }
+
+        final int d = noccube != null ? noccube.d : 2;
+        batch = new CubeBatch(d, blank, tex); // Every cube starts at home
+
+        if (Trace.LEVEL >= Trace.INFO) Trace.begin(Trace.ANIMATION, animation_state, 0);
+    }
+
+    @Override
+    public NOCCube getNOCCube() {
+        return noccube;
+    }
+
+    @Override
+    public int getAnimationState() {
+        return animation_state;
+    }
+
+    private void setAnimationState(final int state, final int axis) {
+        if (Trace.LEVEL >= Trace.INFO) {
+            Trace.end(Trace.ANIMATION, animation_state, 0);
+            Trace.begin(Trace.ANIMATION, state, axis);
+        }
+        animation_state = state;
+
+        if (state == IDLE) {
+            // At rest, nothing inside can be seen
+            batch.clearExposed();
+            final int d = noccube != null ? noccube.d : 2;
+            setCore(cores, 0, d, NOCCube.AXIS_X, 0, d - 1);
+            coreCount = 1;
+        }
+    }
+
+    @Override
+    public void permute(final int axis, final int slice, final boolean clockwise) {
+        if ((animation_state != IDLE && animation_state != ROTATING) || noccube == null) return;
+        if (axis < 0 || axis >= 3 || slice < 0 || slice >= noccube.d) return;
+
+        noccube.rotate(axis, slice, clockwise);
+
+        // NOTE: no move is ever dropped. When too far behind, the oldest move is shown without
+        //       being animated, so what is drawn never lags more than MAX_QUEUED_MOVES behind.
+        //       The new move is queued before the next turn is started, so it is never left out
+        //       of the queue while the rest of it settles down.
+        final boolean skip = moves.isFull();
+        if (skip) {
+            if (animation_state == ROTATING) batch.setTurn(-1, 0, null);
+            showMove(moves.axis(), moves.slice(), moves.clockwise());
+            moves.remove();
+        }
+        moves.add(axis, slice, clockwise);
+
+        if (skip || animation_state == IDLE) nextTurn();
+    }
+
+    // Starts animating the next queued move, or settles down when there are none
+    private void nextTurn() {
+        while (!moves.isEmpty()) {
+            final int axis = moves.axis();
+            final int slice = moves.slice();
+
+            // Consecutive moves of the same slice are turned together
+            int quarters = 0;
+            while (!moves.isEmpty() && moves.axis() == axis && moves.slice() == slice) {
+                quarters += moves.clockwise() ? 1 : -1;
+                showMove(axis, slice, moves.clockwise());
+                moves.remove();
+            }
+
+            quarters = (quarters % 4 + 4) % 4;
+            if (quarters == 0) continue; // Back where it started, nothing to see
+
+            setAnimationState(ROTATING, axis);
+            rotational_axis = axis;
+            rotational_slice = slice;
+            rotational_angle = prev_rotational_angle = 0.0f;
+            turn_angle = quarters == 2 ? 180.0f : 90.0f;
+            direction = quarters == 3 ? -1.0f : 1.0f; // Three quarters one way is one the other
+
+            exposeSlice(axis, slice);
+            turn(0.0f);
+            return;
+        }
+
+        // Only what is shown, as only that has finished (the same as the noccube, once caught up)
+        setAnimationState(shown.isSolved() ? SOLVED : IDLE, 0);
+        if (Trace.LEVEL >= Trace.INFO && animation_state == SOLVED) Trace.instant(Trace.SOLVED, 0, 0);
+    }
+
+    // Makes a move on what is shown. The slice's cubes go straight to where they end up (and are
+    // turned back from there, see turn).
+    private void showMove(final int axis, final int slice, final boolean clockwise) {
+        shown.rotate(axis, slice, clockwise);
+
+        for (int b = 0; b < shown.d; b++) {
+            for (int a = 0; a < shown.d; a++) {
+                setCubePosition(
+                    axis == NOCCube.AXIS_X ? slice : a,
+                    axis == NOCCube.AXIS_Y ? slice : axis == NOCCube.AXIS_X ? a : b,
+                    axis == NOCCube.AXIS_Z ? slice : b
+                );
+            }
+        }
+    }
+
+    @Override
+    public void draw(final float[] vpMatrix, final ShaderProgram program, final float dt) {
+        update(dt);
+        render(vpMatrix, program, 1.0f);
+    }
+
+    @Override
+    public void update(final float dt) {
+        prev_rotational_angle = rotational_angle;
+        prev_seperation = seperation;
+        prev_alpha = alpha;
+
+        switch (animation_state) {
+            case EXPAND: {
+                seperation += 8.0f * dt;
+
+                if (seperation >= INIT_SEPERATION + 1.0f) {
+                    seperation = INIT_SEPERATION + 1.0f;
+                    setAnimationState(CONTRACT, 0);
+
+                    noccube.scramble();
+                    shown.set(noccube);
+                    setCubePositions();
+                }
+
+                break;
+            }
+
+            case CONTRACT: {
+                seperation += -8.0f * dt;
+
+                if (seperation <= INIT_SEPERATION) {
+                    seperation = INIT_SEPERATION;
+                    setAnimationState(IDLE, 0);
+                }
+
+                break;
+            }
+
+            case ROTATING: {
+                // Faster the more moves are waiting, so a backlog soon catches up
+                rotational_angle += angular_speed * (1 + moves.size()) * dt;
+
+                if (rotational_angle >= turn_angle) {
+                    batch.setTurn(-1, 0, null); // Where they were going all along
+                    nextTurn();
+                }
+
+                break;
+            }
+
+            case SOLVED: {
+                seperation += sep_velocity * dt;
+                alpha = sep_velocity / INIT_SEP_VELOCITY;
+                sep_velocity += SEP_ACCELERATION * dt;
+
+                if (sep_velocity <= 0.0f) {
+                    alpha = 0.0f;
+                    setAnimationState(COMPLETE, 0);
+                }
+
+                break;
+            }
+
+            case COMPLETE: {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void render(final float[] vpMatrix, final ShaderProgram program, final float interpolation) {
+        if (animation_state == COMPLETE) return;
+        Metrics.begin(Metrics.MATRICES);
+
+        // Sub-transformations are specified in the reverse order you wish them to occur in:
+        // scale <- locale rotate <- translate
+
+        System.arraycopy(vpMatrix, 0, rvpMatrix, 0, 16);
+
+        // scale
+        final float scale = noccube != null ? 1.0f/(float)noccube.d : 1.0f/2.0f; // Validation check
+        Matrix4.scaleM(rvpMatrix, 0, scale, scale, scale);
+
+        // In between the last two updates
+        final float seperation = prev_seperation + (this.seperation - prev_seperation) * interpolation;
+        final float alpha = prev_alpha + (this.alpha - prev_alpha) * interpolation;
+
+        if (animation_state == ROTATING) {
+            turn(prev_rotational_angle + (rotational_angle - prev_rotational_angle) * interpolation);
+        }
+        Metrics.end(Metrics.MATRICES);
+
+        Metrics.begin(Metrics.SUBMIT);
+        if (animation_state == IDLE || animation_state == ROTATING) {
+            batch.drawShell(rvpMatrix, seperation, cores, coreCount, alpha);
+        } else {
+            // Separated, so every face of every cube can be seen
+            batch.draw(rvpMatrix, seperation, alpha);
+        }
+        Metrics.end(Metrics.SUBMIT);
+    }
+
+    // Exposes the faces either side of a turning slice, and splits the core around it
+    private void exposeSlice(final int axis, final int slice) {
+        final int d = shown.d;
+
+        batch.clearExposed();
+        for (int side = -1; side <= 1; side += 2) {
+            if (slice + side < 0 || slice + side >= d) continue;
+
+            for (int b = 0; b < d; b++) {
+                for (int a = 0; a < d; a++) {
+                    if (!mayBeExposed(a, b)) continue;
+
+                    // The slice's face towards its neighbour, and the neighbour's face back towards it
+                    expose(axis, slice, a, b, side);
+                    expose(axis, slice + side, a, b, -side);
+                }
+            }
+        }
+
+        coreCount = 0;
+        if (slice > 0) setCore(cores, 16*coreCount++, d, axis, 0, slice - 1);
+        turningCore = coreCount++;
+        setCore(turningCoreMatrix, 0, d, axis, slice, slice);
+        if (slice < d-1) setCore(cores, 16*coreCount++, d, axis, slice + 1, d - 1);
+    }
+
+    // Whether the cube at (a, b) within a slice pokes out past a neighbouring slice at some angle of
+    // turning, i.e. whether it reaches outside the circle inscribed in the slice
+    private boolean mayBeExposed(final int a, final int b) {
+        final float diff = (shown.d - 1.0f) / 2.0f;
+        final float radius = INIT_SEPERATION * diff + 1.0f;
+        final float u = INIT_SEPERATION * Math.abs(a - diff) + 1.0f; // Furthest corner
+        final float v = INIT_SEPERATION * Math.abs(b - diff) + 1.0f;
+
+        return u*u + v*v > radius*radius;
+    }
+
+    // Exposes the face of the cube at (a, b) within a slice that faces along sign * axis
+    private void expose(final int axis, final int slice, final int a, final int b, final int sign) {
+        final int x = axis == NOCCube.AXIS_X ? slice : a;
+        final int y = axis == NOCCube.AXIS_Y ? slice : axis == NOCCube.AXIS_X ? a : b;
+        final int z = axis == NOCCube.AXIS_Z ? slice : b;
+
+        // Direction in the cube mesh (the orientation transposed, applied to the axis)
+        final int R[] = Orientation.matrix(shown.getOrientation(x, y, z));
+        final int fx = sign * R[axis], fy = sign * R[3 + axis], fz = sign * R[6 + axis];
+
+        batch.addExposed(shown.getDisplayHandle(x, y, z), CubeBatch.faceFacing(fx, fy, fz));
+    }
+
+    // Sets m to map the cube mesh onto a box just inside slices first to last along axis (of a
+    // packed noccube of size d)
+    static void setCore(final float[] m, final int offset, final int d, final int axis, final int first, final int last) {
+        final float diff = (d - 1.0f) / 2.0f;
+        final float across = INIT_SEPERATION * diff + 1.0f - CORE_INSET;
+        final float low = INIT_SEPERATION * (first - diff) - 1.0f + CORE_INSET;
+        final float high = INIT_SEPERATION * (last - diff) + 1.0f - CORE_INSET;
+
+        Matrix4.setIdentityM(m, offset);
+        for (int i = 0; i < 3; i++) {
+            m[offset + 5*i] = i == axis ? (high - low) / 2.0f : across; // Scale
+        }
+        m[offset + 12 + axis] = (high + low) / 2.0f; // Translate
+    }
+
+    // Turns the turning slice (and its core) to angle degrees of the way round
+    private void turn(final float angle) {
+        final float x = rotational_axis == NOCCube.AXIS_X ? direction : 0.0f;
+        final float y = rotational_axis == NOCCube.AXIS_Y ? direction : 0.0f;
+        final float z = rotational_axis == NOCCube.AXIS_Z ? direction : 0.0f;
+
+        // NOTE: the slice's cubes are already where they end up, so are turned back from there
+        Matrix4.setRotateM(rotationMatrix, 0, angle - turn_angle, x, y, z);
+        batch.setTurn(rotational_axis, rotational_slice, rotationMatrix);
+
+        Matrix4.setRotateM(tmpMatrix, 0, angle, x, y, z);
+        Matrix4.multiplyMM(cores, 16*turningCore, tmpMatrix, 0, turningCoreMatrix, 0);
+    }
+
+    private void setCubePositions() {
+        final int d = shown != null ? shown.d : 2;
+
+        for (int z = 0; z < d; z++) {
+            for (int y = 0; y < d; y++) {
+                for (int x = 0; x < d; x++) {
+                    setCubePosition(x, y, z);
+                }
+            }
+        }
+    }
+
+    private void setCubePosition(final int x, final int y, final int z) {
+        batch.setCube(shown.getDisplayHandle(x, y, z), x, y, z, shown.getOrientation(x, y, z));
+    }
+}
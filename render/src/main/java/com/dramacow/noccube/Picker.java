@@ -0,0 +1,75 @@
+package com.dramacow.noccube;
+
+// Finds which face (and which cube on it) of a noccube is under a touch, by casting a ray through
+// the inverse view-projection matrix onto the noccube's bounding box (-1 to 1 on each axis).
+// Results are left in the fields below, so picking allocates nothing.
+public final class Picker {
+
+    // Faces, numbered as NOCCubeRenderer.normal
+    public static final int FRONT  = 0; // +z
+    public static final int BACK   = 1; // -z
+    public static final int LEFT   = 2; // -x
+    public static final int RIGHT  = 3; // +x
+    public static final int TOP    = 4; // +y
+    public static final int BOTTOM = 5; // -y
+
+    // Face entered through the negative and positive side of each axis
+    private static final int ENTERED[][] = {
+        { LEFT, RIGHT },
+        { BOTTOM, TOP },
+        { BACK, FRONT }
+    };
+
+    public int face = -1;                     // Face hit, or -1 for none
+    public final float point[] = new float[3]; // Where
+    public final int cube[] = new int[3];      // Position (x, y, z) of the cube hit, in a noccube of size d
+
+    // Scratch space
+    private final float origin[] = new float[3];
+    private final float direction[] = new float[3];
+
+    // Picks at normalised device co-ordinates (x, y), returning the face hit (also left in face)
+    public int pick(final float[] invVPMatrix, final float x, final float y, final int d) {
+        // The ray runs from the near plane to the far plane
+        unproject(origin, invVPMatrix, x, y, -1.0f);
+        unproject(direction, invVPMatrix, x, y, 1.0f);
+        for (int i = 0; i < 3; i++) direction[i] -= origin[i];
+
+        // Slabs: the ray is inside the box once it is between both planes of every axis, so enters
+        // it through the plane it reaches last
+        float near = Float.NEGATIVE_INFINITY, far = Float.POSITIVE_INFINITY;
+        int axis = -1;
+        for (int i = 0; i < 3; i++) {
+            if (direction[i] == 0.0f) {
+                if (origin[i] < -1.0f || origin[i] > 1.0f) return face = -1;
+                continue;
+            }
+
+            final float t1 = (-1.0f - origin[i]) / direction[i];
+            final float t2 = (1.0f - origin[i]) / direction[i];
+            if (Math.min(t1, t2) > near) {
+                near = Math.min(t1, t2);
+                axis = i;
+            }
+            far = Math.min(far, Math.max(t1, t2));
+        }
+        if (axis == -1 || near > far || far < 0.0f) return face = -1;
+
+        // NOTE: heading along +axis means entering through the -axis face
+        face = ENTERED[axis][direction[axis] > 0.0f ? 0 : 1];
+        for (int i = 0; i < 3; i++) {
+            point[i] = i == axis ? (direction[i] > 0.0f ? -1.0f : 1.0f) : origin[i] + near * direction[i];
+
+            final int c = (int) ((point[i] + 1.0f) / 2.0f * d);
+            cube[i] = c < 0 ? 0 : c >= d ? d - 1 : c;
+        }
+        return face;
+    }
+
+    private static void unproject(final float[] result, final float[] m, final float x, final float y, final float z) {
+        final float w = m[3]*x + m[7]*y + m[11]*z + m[15];
+        for (int i = 0; i < 3; i++) {
+            result[i] = (m[i]*x + m[4 + i]*y + m[8 + i]*z + m[12 + i]) / w;
+        }
+    }
+}
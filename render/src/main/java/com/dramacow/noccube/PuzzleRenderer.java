@@ -0,0 +1,7 @@
+package com.dramacow.noccube;
+
+// A CubeRenderer for a noccube being played (as opposed to the menu's display cube)
+public interface PuzzleRenderer extends CubeRenderer {
+    public NOCCube getNOCCube();
+    public int getAnimationState(); // One of NOCCubeRenderer.IDLE etc.
+}
@@ -0,0 +1,98 @@
+package com.dramacow.noccube;
+
+public class Quad {
+    public final float modelM[] = new float[16];
+
+    private final int texCoordOffset; // Where this instance's texture co-ordinates are in the shared geometry
+
+    private final TextureRegion region;
+
+    public static float vertices[] = {
+        // Front face
+        -1.0f, -1.0f, 0.0f,// Bottom Left
+        1.0f, -1.0f, 0.0f, // Bottom Right
+        1.0f, 1.0f, 0.0f,  // Top Right
+        -1.0f, 1.0f, 0.0f, // Top left
+    };
+
+    public static float colours[] = {
+        // Front face
+        0.0f, 0.0f, 0.0f, 1.0f,
+        0.0f, 0.0f, 1.0f, 1.0f,
+        0.0f, 1.0f, 0.0f, 1.0f,
+        0.0f, 1.0f, 1.0f, 1.0f,
+    };
+
+    public static float[] texCoords = {
+        0.0f, 0.0f,     // Bottom Left
+        1.0f, 0.0f,     // Bottom Right
+        1.0f, -1.0f,     // Top Right
+        0.0f, -1.0f,      // Top left
+    };
+
+    public static short indices[] = {
+        0,1,2, 0,2,3,       //front
+    };
+
+    public Quad(final TextureRegion region) {
+        // Texture data/offsets
+        this.region = region;
+        final float texCoords[] = region.map(Quad.texCoords);
+
+        // Only the texture co-ordinates are per instance, the mesh is shared
+        texCoordOffset = Geometry.addTexCoords(texCoords);
+
+        // Model matrix
+        Matrix4.setIdentityM(modelM, 0);
+    }
+
+    public void draw(final float[] mvpMatrix, final ShaderProgram program, final float alpha) {
+        final RenderBackend gl = GL.backend();
+        program.use();
+
+        // Program handles (resolved when the program was linked)
+        final int mvpMatrixHandle = program.mvpMatrixHandle;
+        final int alphaUniformHandle = program.alphaUniformHandle;
+        final int positionHandle = program.positionHandle;
+        final int colourHandle = program.colourHandle;
+        final int texCoordHandle = program.texCoordHandle;
+
+        Geometry.bind();
+
+        gl.glEnableVertexAttribArray(positionHandle);   // Enable a handle to the triangle vertices
+        gl.glVertexAttribPointer(                       // Prepare the triangle coordinate data
+            positionHandle, 3,
+            RenderBackend.GL_FLOAT, false,
+            12, Geometry.QUAD_VERTICES * Geometry.FLOAT_SIZE
+        );
+
+        if (colourHandle != -1) { // Not used by every program
+            gl.glEnableVertexAttribArray(colourHandle);
+            gl.glVertexAttribPointer(
+                colourHandle, 4,
+                RenderBackend.GL_FLOAT, false,
+                16, Geometry.QUAD_COLOURS * Geometry.FLOAT_SIZE
+            );
+        }
+
+        gl.glEnableVertexAttribArray(texCoordHandle);
+        gl.glVertexAttribPointer(
+            texCoordHandle, 2,
+            RenderBackend.GL_FLOAT, false,
+            8, texCoordOffset * Geometry.FLOAT_SIZE
+        );
+
+        // Apply the projection and view transformation
+        gl.glUniformMatrix4fv(mvpMatrixHandle, 1, false, mvpMatrix, 0);
+
+        gl.glUniform1f(alphaUniformHandle, alpha);
+
+        region.bind();
+        gl.glDrawElements(RenderBackend.GL_TRIANGLES, 6, RenderBackend.GL_UNSIGNED_SHORT, Geometry.QUAD_INDICES * Geometry.SHORT_SIZE);
+
+        // Disable vertex array
+        gl.glDisableVertexAttribArray(positionHandle);
+        if (colourHandle != -1) gl.glDisableVertexAttribArray(colourHandle);
+        gl.glDisableVertexAttribArray(texCoordHandle);
+    }
+}
@@ -0,0 +1,102 @@
+package com.dramacow.noccube;
+
+import java.nio.Buffer;
+
+// Every GL call the renderers make, so they can run against a real context (GLES20Backend in the
+// app) or none at all (HeadlessBackend, for tests and benchmarks on the JVM).
+// Method names, arguments and constants all match android.opengl.GLES20/GLES30.
+public interface RenderBackend {
+
+    int GL_DEPTH_BUFFER_BIT           = 0x00000100;
+    int GL_COLOR_BUFFER_BIT           = 0x00004000;
+    int GL_TRIANGLES                  = 0x0004;
+    int GL_ONE                        = 1;
+    int GL_ONE_MINUS_SRC_ALPHA        = 0x0303;
+    int GL_DEPTH_TEST                 = 0x0B71;
+    int GL_BLEND                      = 0x0BE2;
+    int GL_TEXTURE_2D                 = 0x0DE1;
+    int GL_UNSIGNED_SHORT             = 0x1403;
+    int GL_FLOAT                      = 0x1406;
+    int GL_VERSION                    = 0x1F02;
+    int GL_EXTENSIONS                 = 0x1F03;
+    int GL_NEAREST                    = 0x2600;
+    int GL_LINEAR                     = 0x2601;
+    int GL_LINEAR_MIPMAP_LINEAR       = 0x2703;
+    int GL_TEXTURE_MAG_FILTER         = 0x2800;
+    int GL_TEXTURE_MIN_FILTER         = 0x2801;
+    int GL_TEXTURE_WRAP_S             = 0x2802;
+    int GL_TEXTURE_WRAP_T             = 0x2803;
+    int GL_CLAMP_TO_EDGE              = 0x812F;
+    int GL_TEXTURE_MAX_LEVEL          = 0x813D; // OpenGL ES 3.0
+    int GL_ARRAY_BUFFER               = 0x8892;
+    int GL_ELEMENT_ARRAY_BUFFER       = 0x8893;
+    int GL_STATIC_DRAW                = 0x88E4;
+    int GL_DYNAMIC_DRAW               = 0x88E8;
+    int GL_FRAGMENT_SHADER            = 0x8B30;
+    int GL_VERTEX_SHADER              = 0x8B31;
+    int GL_COMPILE_STATUS             = 0x8B81;
+    int GL_LINK_STATUS                = 0x8B82;
+    int GL_ETC1_RGB8_OES              = 0x8D64;
+    int GL_MAX_VERTEX_UNIFORM_VECTORS = 0x8DFB;
+    int GL_COMPRESSED_RGB8_ETC2       = 0x9274;
+    int GL_COMPRESSED_RGBA8_ETC2_EAC  = 0x9278;
+
+    // Whether glDrawElementsInstanced and glVertexAttribDivisor may be called (OpenGL ES 3.0)
+    boolean supportsInstancing();
+
+    // State
+    void glClearColor(float red, float green, float blue, float alpha);
+    void glClear(int mask);
+    void glViewport(int x, int y, int width, int height);
+    void glEnable(int cap);
+    void glBlendFunc(int sfactor, int dfactor);
+    void glGetIntegerv(int pname, int[] params, int offset);
+    String glGetString(int name);
+
+    // Shaders
+    int glCreateShader(int type);
+    void glShaderSource(int shader, String string);
+    void glCompileShader(int shader);
+    void glGetShaderiv(int shader, int pname, int[] params, int offset);
+    String glGetShaderInfoLog(int shader);
+    void glDeleteShader(int shader);
+    int glCreateProgram();
+    void glAttachShader(int program, int shader);
+    void glLinkProgram(int program);
+    void glGetProgramiv(int program, int pname, int[] params, int offset);
+    String glGetProgramInfoLog(int program);
+    void glDeleteProgram(int program);
+    void glUseProgram(int program);
+    int glGetUniformLocation(int program, String name);
+    int glGetAttribLocation(int program, String name);
+
+    // Uniforms
+    void glUniform1i(int location, int x);
+    void glUniform1f(int location, float x);
+    void glUniform4f(int location, float x, float y, float z, float w);
+    void glUniform4fv(int location, int count, float[] v, int offset);
+    void glUniformMatrix4fv(int location, int count, boolean transpose, float[] value, int offset);
+
+    // Buffers
+    void glGenBuffers(int n, int[] buffers, int offset);
+    void glBindBuffer(int target, int buffer);
+    void glBufferData(int target, int size, Buffer data, int usage);
+    void glBufferSubData(int target, int offset, int size, Buffer data);
+
+    // Attributes
+    void glEnableVertexAttribArray(int index);
+    void glDisableVertexAttribArray(int index);
+    void glVertexAttribPointer(int index, int size, int type, boolean normalized, int stride, int offset);
+    void glVertexAttribDivisor(int index, int divisor);
+
+    // Textures
+    void glGenTextures(int n, int[] textures, int offset);
+    void glBindTexture(int target, int texture);
+    void glTexParameteri(int target, int pname, int param);
+    void glCompressedTexImage2D(int target, int level, int internalformat, int width, int height, int border, int imageSize, Buffer data);
+    void glGenerateMipmap(int target);
+
+    // Drawing
+    void glDrawElements(int mode, int count, int type, int offset);
+    void glDrawElementsInstanced(int mode, int count, int type, int offset, int instanceCount);
+}
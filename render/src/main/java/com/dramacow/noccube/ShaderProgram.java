@@ -0,0 +1,108 @@
+package com.dramacow.noccube;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Compiled and linked shader program, with every uniform/attribute location resolved at link time
+// (so nothing is looked up by name while drawing)
+public class ShaderProgram {
+
+    public final int handle;
+
+    // Locations shared by the textured programs (-1 where a program does not use them)
+    public final int mvpMatrixHandle, texUniformHandle, alphaUniformHandle;
+    public final int positionHandle, colourHandle, texCoordHandle;
+
+    // Any other locations, by name
+    private final Map<String, Integer> uniforms = new HashMap<String, Integer>();
+    private final Map<String, Integer> attributes = new HashMap<String, Integer>();
+
+    // Program currently in use, to skip redundant glUseProgram calls
+    private static ShaderProgram current = null;
+
+    public ShaderProgram(final String vertexShaderCode, final String fragmentShaderCode) {
+        this(vertexShaderCode, fragmentShaderCode, new String[] {}, new String[] {});
+    }
+
+    public ShaderProgram(final String vertexShaderCode, final String fragmentShaderCode,
+                         final String uniformNames[], final String attributeNames[]) {
+        final RenderBackend gl = GL.backend();
+        final int vertexShader = loadShader(RenderBackend.GL_VERTEX_SHADER, vertexShaderCode);
+        final int fragmentShader = loadShader(RenderBackend.GL_FRAGMENT_SHADER, fragmentShaderCode);
+
+        handle = gl.glCreateProgram();             // create empty OpenGL ES Program
+        gl.glAttachShader(handle, vertexShader);   // add the vertex shader to program
+        gl.glAttachShader(handle, fragmentShader); // add the fragment shader to program
+        gl.glLinkProgram(handle);
+
+        final int status[] = new int[1];
+        gl.glGetProgramiv(handle, RenderBackend.GL_LINK_STATUS, status, 0);
+        if (status[0] == 0) {
+            final String log = gl.glGetProgramInfoLog(handle);
+            gl.glDeleteProgram(handle);
+            throw new RuntimeException("Error linking program: " + log);
+        }
+
+        // The program holds on to the shaders, so they can be flagged for deletion straight away
+        gl.glDeleteShader(vertexShader);
+        gl.glDeleteShader(fragmentShader);
+
+        mvpMatrixHandle = gl.glGetUniformLocation(handle, "uMVPMatrix");
+        texUniformHandle = gl.glGetUniformLocation(handle, "uTex");
+        alphaUniformHandle = gl.glGetUniformLocation(handle, "uAlpha");
+        // ---
+        positionHandle = gl.glGetAttribLocation(handle, "aPosition");
+        colourHandle = gl.glGetAttribLocation(handle, "aColour");
+        texCoordHandle = gl.glGetAttribLocation(handle, "aTexCoord");
+
+        for (String name : uniformNames) {
+            uniforms.put(name, gl.glGetUniformLocation(handle, name));
+        }
+        for (String name : attributeNames) {
+            attributes.put(name, gl.glGetAttribLocation(handle, name));
+        }
+    }
+
+    public static int loadShader(final int type, final String shaderCode) {
+        final RenderBackend gl = GL.backend();
+        final int shader = gl.glCreateShader(type);
+        gl.glShaderSource(shader, shaderCode);
+        gl.glCompileShader(shader);
+
+        final int status[] = new int[1];
+        gl.glGetShaderiv(shader, RenderBackend.GL_COMPILE_STATUS, status, 0);
+        if (status[0] == 0) {
+            final String log = gl.glGetShaderInfoLog(shader);
+            gl.glDeleteShader(shader);
+            throw new RuntimeException("Error compiling shader: " + log);
+        }
+
+        return shader;
+    }
+
+    // Location of a uniform named when the program was created (-1 if the program does not use it)
+    public int uniform(final String name) {
+        final Integer location = uniforms.get(name);
+        if (location == null) throw new IllegalArgumentException("Uniform not resolved: " + name);
+        return location;
+    }
+
+    // Location of an attribute named when the program was created (-1 if the program does not use it)
+    public int attribute(final String name) {
+        final Integer location = attributes.get(name);
+        if (location == null) throw new IllegalArgumentException("Attribute not resolved: " + name);
+        return location;
+    }
+
+    public void use() {
+        if (current != this) {
+            GL.backend().glUseProgram(handle);
+            current = this;
+        }
+    }
+
+    // To be called when the GL context is (re)created, as no program is in use in a new context
+    public static void invalidateCurrent() {
+        current = null;
+    }
+}
@@ -0,0 +1,47 @@
+package com.dramacow.noccube;
+
+// Rectangle of a texture (e.g. one image packed into a TextureAtlas)
+public class TextureRegion {
+
+    public final int texture;
+    public final float u0, v0, u1, v1;
+
+    // Last texture bound through bind(), to skip redundant state changes
+    private static int bound = 0;
+
+    public TextureRegion(final int texture, final float u0, final float v0, final float u1, final float v1) {
+        this.texture = texture;
+        this.u0 = u0; this.v0 = v0;
+        this.u1 = u1; this.v1 = v1;
+    }
+
+    // Maps one face's worth of texture co-ordinates (e.g. Cube.faceTexCoords) into this region.
+    // NOTE: co-ordinates running from 0 to -1 (e.g. Cube.fullFaceTexCoords) relied on the texture
+    //       repeating to flip the image, so are shifted up into 0 to 1 before being mapped.
+    public float[] map(final float[] texCoords) {
+        float minU = 0.0f, minV = 0.0f;
+        for (int i = 0; i < texCoords.length; i += 2) {
+            minU = Math.min(minU, texCoords[i]);
+            minV = Math.min(minV, texCoords[i + 1]);
+        }
+
+        final float mapped[] = new float[texCoords.length];
+        for (int i = 0; i < texCoords.length; i += 2) {
+            mapped[i]     = u0 + (texCoords[i]     - minU) * (u1 - u0);
+            mapped[i + 1] = v0 + (texCoords[i + 1] - minV) * (v1 - v0);
+        }
+        return mapped;
+    }
+
+    public void bind() {
+        if (texture != bound) {
+            GL.backend().glBindTexture(RenderBackend.GL_TEXTURE_2D, texture);
+            bound = texture;
+        }
+    }
+
+    // To be called whenever a texture is bound other than through bind() (or the context is lost)
+    public static void invalidateBinding() {
+        bound = 0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.dramacow.noccube;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FaceGridRendererTest {
+
+    private static final int D = FaceGridRenderer.MIN_D;
+    private static final float DT = HeadlessFixture.DT;
+
+    private final float vpMatrix[] = new float[16];
+    private HeadlessBackend backend;
+    private ShaderProgram program;
+    private TextureRegion blank;
+    private TextureRegion faces[];
+
+    @Before
+    public void setUp() {
+        backend = new HeadlessBackend();
+        program = HeadlessFixture.reset(backend);
+        blank = HeadlessFixture.blank();
+        faces = HeadlessFixture.faces();
+    }
+
+    private void settle(final FaceGridRenderer renderer) {
+        HeadlessFixture.settleIdle(renderer, program);
+    }
+
+    private static float[] stickers(final FaceGridRenderer renderer) {
+        final float copy[] = new float[renderer.stickers.capacity()];
+        for (int i = 0; i < copy.length; i++) copy[i] = renderer.stickers.get(i);
+        return copy;
+    }
+
+    @Test
+    public void idleFrame_drawsEachFaceOnce() {
+        final FaceGridRenderer renderer = new FaceGridRenderer(new NOCCube(D), blank, faces);
+        settle(renderer);
+
+        backend.reset();
+        renderer.draw(vpMatrix, program, DT);
+
+        assertEquals(6 + 6, backend.drawCalls); // Each grid, then each face of the core
+        assertEquals(6 * 6 * D*D + 36, backend.indices);
+        assertTrue("uploaded: " + backend.uploadedBytes, backend.uploadedBytes < 1024); // Just uniforms
+    }
+
+    @Test
+    public void quarterTurns_matchTheNOCCube() {
+        // Turned about other axes first, so the turns below can never happen to solve it
+        final NOCCube noccube = new NOCCube(D);
+        noccube.rotate(NOCCube.AXIS_Y, 1, true);
+        noccube.rotate(NOCCube.AXIS_Z, 2, false);
+        final FaceGridRenderer renderer = new FaceGridRenderer(noccube, blank, faces);
+        settle(renderer);
+        final float scrambled[] = stickers(renderer);
+
+        // Whatever turning a slice shows, it is what a new renderer of the turned noccube shows
+        renderer.permute(NOCCube.AXIS_X, 3, true);
+        backend.reset();
+        settle(renderer);
+        assertTrue("uploaded: " + backend.uploadedBytes, backend.uploadedBytes < 6 * 4*D*D * 4 * 4 / 2); // Well short of every sticker
+        assertArrayEquals(stickers(new FaceGridRenderer(noccube, blank, faces)), stickers(renderer), 0.0f);
+        assertFalse(java.util.Arrays.equals(scrambled, stickers(renderer)));
+
+        for (int i = 0; i < 3; i++) {
+            renderer.permute(NOCCube.AXIS_X, 3, true);
+            settle(renderer);
+        }
+        assertArrayEquals(scrambled, stickers(renderer), 0.0f);
+    }
+
+    @Test
+    public void queuedTurns_matchTheNOCCube() {
+        final NOCCube noccube = new NOCCube(D);
+        noccube.rotate(NOCCube.AXIS_Y, 1, true);
+        final FaceGridRenderer renderer = new FaceGridRenderer(noccube, blank, faces);
+        settle(renderer);
+
+        // Three quarters of the same slice (turned together), then one of another, all at once
+        for (int i = 0; i < 3; i++) renderer.permute(NOCCube.AXIS_X, 3, true);
+        renderer.permute(NOCCube.AXIS_Z, 0, false);
+        assertEquals(NOCCubeRenderer.ROTATING, renderer.getAnimationState());
+        settle(renderer);
+
+        assertArrayEquals(stickers(new FaceGridRenderer(noccube, blank, faces)), stickers(renderer), 0.0f);
+    }
+}
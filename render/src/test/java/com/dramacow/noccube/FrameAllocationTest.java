@@ -0,0 +1,114 @@
+package com.dramacow.noccube;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+// Steady state drawing must not allocate (measured against a HeadlessBackend, so only the CPU side counts)
+public class FrameAllocationTest {
+
+    private static final float DT = HeadlessFixture.DT;
+    private static final int FRAMES = 1000;
+    private static final int ROUNDS = 5;
+
+    private final float vpMatrix[] = new float[16];
+    private ShaderProgram program;
+    private TextureRegion blank;
+    private TextureRegion faces[];
+
+    // Looked up once, as the lookups themselves allocate
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final long thread = Thread.currentThread().getId();
+
+    private static long allocatedBytes() {
+        return threads.getThreadAllocatedBytes(thread);
+    }
+
+    @Before
+    public void setUp() {
+        program = HeadlessFixture.reset(new HeadlessBackend());
+        blank = HeadlessFixture.blank();
+        faces = HeadlessFixture.faces();
+    }
+
+    // Draws until the scramble animation is over, so the cube is sitting idle
+    private NOCCubeRenderer idleRenderer(final int d) {
+        final NOCCubeRenderer renderer = new NOCCubeRenderer(new NOCCube(d), blank, faces);
+        HeadlessFixture.settleIdle(renderer, program);
+        return renderer;
+    }
+
+    // Fewest bytes allocated by any of a few rounds of frames. JIT compilation can allocate on the
+    // drawing thread in the first rounds, so a path that really allocates does so in every round.
+    private static long leastAllocated(final Runnable frames) {
+        allocatedBytes();
+
+        long least = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long before = allocatedBytes();
+            frames.run();
+            least = Math.min(least, allocatedBytes() - before);
+        }
+        return least;
+    }
+
+    @Test
+    public void idleFrames_allocateNothing() {
+        final NOCCubeRenderer renderer = idleRenderer(4);
+
+        assertEquals(0, leastAllocated(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < FRAMES; i++) renderer.draw(vpMatrix, program, DT);
+            }
+        }));
+    }
+
+    @Test
+    public void rotatingFrames_allocateNothing() {
+        final NOCCubeRenderer renderer = idleRenderer(4);
+        final NOCCube trial = new NOCCube(4);
+
+        long least = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long allocated = 0;
+            for (int move = 0; move < 20; move++) {
+                // NOTE: the scramble is random, so a move could happen to solve the noccube (ending
+                //       in SOLVED rather than IDLE). Another slice then, as only one move can.
+                int slice = move % 4;
+                trial.set(renderer.getNOCCube());
+                trial.rotate(move % 3, slice, move % 2 == 0);
+                if (trial.isSolved()) slice = (slice + 1) % 4;
+
+                final long before = allocatedBytes();
+                renderer.permute(move % 3, slice, move % 2 == 0); // The move itself included
+                assertEquals(NOCCubeRenderer.ROTATING, renderer.getAnimationState());
+
+                while (renderer.getAnimationState() == NOCCubeRenderer.ROTATING) {
+                    renderer.draw(vpMatrix, program, DT);
+                }
+                allocated += allocatedBytes() - before;
+                assertEquals(NOCCubeRenderer.IDLE, renderer.getAnimationState());
+            }
+            least = Math.min(least, allocated);
+        }
+        assertEquals(0, least);
+    }
+
+    @Test
+    public void buttonFrames_allocateNothing() {
+        final Button button = new Button(blank);
+        button.set(0.0f, 0.0f, 0.5f, 0.125f);
+
+        assertEquals(0, leastAllocated(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < FRAMES; i++) button.draw(vpMatrix, program);
+            }
+        }));
+    }
+}
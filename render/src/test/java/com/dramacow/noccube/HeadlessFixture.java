@@ -0,0 +1,45 @@
+package com.dramacow.noccube;
+
+// What every test (and benchmark) drawing against a HeadlessBackend sets up: a fresh context, a
+// program, and regions of a texture to draw the cubes with
+final class HeadlessFixture {
+
+    static final float DT = 1.0f / 60.0f;
+
+    private static final float VP_MATRIX[] = new float[16];
+
+    private HeadlessFixture() {}
+
+    // Makes backend current as if its context had just been made (nothing uploaded, nothing bound),
+    // returning a program to draw with
+    static ShaderProgram reset(final HeadlessBackend backend) {
+        GL.setBackend(backend);
+        Geometry.invalidate();
+        ShaderProgram.invalidateCurrent();
+        TextureRegion.invalidateBinding();
+
+        return new ShaderProgram("", "");
+    }
+
+    // Drawn wherever a cube has no face
+    static TextureRegion blank() {
+        return new TextureRegion(1, 0.0f, 0.0f, 0.125f, 0.125f);
+    }
+
+    // One for each face, along a row of the texture
+    static TextureRegion[] faces() {
+        final TextureRegion faces[] = new TextureRegion[6];
+        for (int i = 0; i < 6; i++) faces[i] = new TextureRegion(1, 0.125f * i, 0.5f, 0.125f * (i+1), 0.625f);
+        return faces;
+    }
+
+    // Draws until the renderer is past any animation (the scramble, or turns), sitting idle
+    static void settleIdle(final PuzzleRenderer renderer, final ShaderProgram program) {
+        for (int i = 0; i < 10000 && renderer.getAnimationState() != NOCCubeRenderer.IDLE; i++) {
+            renderer.draw(VP_MATRIX, program, DT);
+        }
+        if (renderer.getAnimationState() != NOCCubeRenderer.IDLE) {
+            throw new AssertionError("Error: still animating (state " + renderer.getAnimationState() + ")");
+        }
+    }
+}
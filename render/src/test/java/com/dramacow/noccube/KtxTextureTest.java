@@ -0,0 +1,91 @@
+package com.dramacow.noccube;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class KtxTextureTest {
+
+    // An 8x8 ETC1 texture with every mipmap (each 4x4 block is 8 bytes), and some key/value data to skip
+    private static ByteBuffer etc1(final ByteOrder order, final int levels) {
+        final int sizes[] = { 32, 8, 8, 8 };
+        final ByteBuffer file = ByteBuffer.allocate(256).order(order);
+        file.put(new byte[] { (byte) 0xAB, 'K', 'T', 'X', ' ', '1', '1', (byte) 0xBB, '\r', '\n', 0x1A, '\n' });
+        file.putInt(0x04030201);
+        file.putInt(0).putInt(1).putInt(0);                                       // glType, glTypeSize, glFormat
+        file.putInt(RenderBackend.GL_ETC1_RGB8_OES).putInt(0x1907);                // glInternalFormat, glBaseInternalFormat
+        file.putInt(8).putInt(8).putInt(0).putInt(0).putInt(1).putInt(levels);   // Size, depth, array elements, faces, levels
+        file.putInt(8).putLong(0);                                                // Key/value data
+        for (int level = 0; level < levels; level++) {
+            file.putInt(sizes[level]);
+            for (int i = 0; i < sizes[level]; i++) file.put((byte) level);
+        }
+        file.flip();
+        return file;
+    }
+
+    @Test
+    public void upload_sendsEveryLevelAsIs() {
+        final HeadlessBackend backend = new HeadlessBackend(true, 256); // OpenGL ES 3.0
+        GL.setBackend(backend);
+
+        for (ByteOrder order : new ByteOrder[] { ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN }) {
+            final KtxTexture texture = new KtxTexture(etc1(order, 4));
+            assertEquals(RenderBackend.GL_ETC1_RGB8_OES, texture.internalFormat);
+            assertEquals(8, texture.width);
+            assertEquals(4, texture.levels);
+            assertTrue(texture.hasMipmaps());
+            assertTrue(texture.isSupported());
+
+            backend.reset();
+            assertTrue(texture.upload() != 0);
+            assertEquals(32 + 8 + 8 + 8, backend.uploadedBytes);
+        }
+    }
+
+    @Test
+    public void etc1_needsTheExtensionBeforeOpenGLES3() {
+        final HeadlessBackend backend = new HeadlessBackend();
+        GL.setBackend(backend);
+
+        final KtxTexture texture = new KtxTexture(etc1(ByteOrder.LITTLE_ENDIAN, 2));
+        assertFalse(texture.hasMipmaps()); // Stops short of 1x1
+        assertFalse(texture.isSupported());
+
+        backend.extensions = "GL_OES_rgb8_rgba8 GL_OES_compressed_ETC1_RGB8_texture";
+        assertTrue(texture.isSupported());
+    }
+
+    // Atlas tiles are only mipmapped while they still cover a few texels, so the chain stops short
+    @Test
+    public void shortChain_isSampledDownToItsLastLevel() {
+        final HeadlessBackend backend = new HeadlessBackend(true, 256); // OpenGL ES 3.0
+        GL.setBackend(backend);
+        new KtxTexture(etc1(ByteOrder.LITTLE_ENDIAN, 2)).upload();
+        assertEquals(RenderBackend.GL_LINEAR_MIPMAP_LINEAR, backend.minFilter);
+        assertEquals(1, backend.maxLevel);
+
+        // No GL_TEXTURE_MAX_LEVEL before OpenGL ES 3.0, so the first level alone
+        final HeadlessBackend es2 = new HeadlessBackend();
+        es2.extensions = "GL_OES_compressed_ETC1_RGB8_texture";
+        GL.setBackend(es2);
+        new KtxTexture(etc1(ByteOrder.LITTLE_ENDIAN, 2)).upload();
+        assertEquals(RenderBackend.GL_LINEAR, es2.minFilter);
+        assertEquals(1000, es2.maxLevel);
+    }
+
+    @Test
+    public void truncatedFile_isRefused() {
+        final ByteBuffer file = etc1(ByteOrder.LITTLE_ENDIAN, 4);
+        file.limit(file.limit() - 1);
+        try {
+            new KtxTexture(file);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("truncated"));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.dramacow.noccube;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NOCCubeRendererTest {
+
+    private static final int D = 5;
+
+    private final float vpMatrix[] = new float[16];
+    private ShaderProgram program;
+    private NOCCubeRenderer renderer;
+
+    @Before
+    public void setUp() {
+        program = HeadlessFixture.reset(new HeadlessBackend(true, 256));
+        renderer = new NOCCubeRenderer(new NOCCube(D), HeadlessFixture.blank(), HeadlessFixture.faces());
+    }
+
+    // Draws frames of uneven lengths until the renderer is no longer animating
+    private void settle(final Random rand) {
+        for (int i = 0; i < 10000 && renderer.getAnimationState() != NOCCubeRenderer.IDLE
+                                  && renderer.getAnimationState() != NOCCubeRenderer.SOLVED; i++) {
+            renderer.draw(vpMatrix, program, 0.005f + 0.03f * rand.nextFloat());
+        }
+    }
+
+    // No turn left over, and every cube exactly on its grid position in its orientation
+    private void assertShowsTheNOCCube() {
+        final NOCCube noccube = renderer.getNOCCube();
+        final float cubes[] = renderer.batch.cubes;
+        assertEquals(-1.0f, renderer.batch.turnSlice[3], 0.0f);
+        for (int z = 0; z < D; z++) {
+            for (int y = 0; y < D; y++) {
+                for (int x = 0; x < D; x++) {
+                    final int h = noccube.getDisplayHandle(x, y, z);
+                    assertArrayEquals(new float[] { x, y, z, noccube.getOrientation(x, y, z) },
+                            new float[] { cubes[4*h], cubes[4*h + 1], cubes[4*h + 2], cubes[4*h + 3] }, 0.0f);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void turns_endExactlyWhereTheNOCCubeSays() {
+        final Random rand = new Random(17);
+        settle(rand);
+
+        for (int move = 0; move < 200 && renderer.getAnimationState() == NOCCubeRenderer.IDLE; move++) {
+            renderer.permute(rand.nextInt(3), rand.nextInt(D), rand.nextBoolean());
+            settle(rand);
+        }
+
+        assertShowsTheNOCCube();
+    }
+
+    @Test
+    public void movesWhileTurning_areQueuedNotLost() {
+        final Random rand = new Random(18);
+        settle(rand);
+
+        // Bursts of moves (often more than can be queued), some repeating the same slice, made
+        // between frames without waiting for the turns to finish
+        final NOCCube expected = new NOCCube(D);
+        expected.set(renderer.getNOCCube());
+        for (int burst = 0; burst < 20 && renderer.getAnimationState() != NOCCubeRenderer.SOLVED; burst++) {
+            final int n = rand.nextInt(2 * NOCCubeRenderer.MAX_QUEUED_MOVES);
+            for (int move = 0; move < n; move++) {
+                final int axis = rand.nextInt(3), slice = rand.nextInt(D);
+                final boolean clockwise = rand.nextBoolean();
+                for (int again = rand.nextInt(3); again >= 0; again--) {
+                    renderer.permute(axis, slice, clockwise);
+                    expected.rotate(axis, slice, clockwise);
+                }
+                renderer.draw(vpMatrix, program, 0.005f * rand.nextFloat());
+            }
+            settle(rand);
+        }
+
+        for (int z = 0; z < D; z++) {
+            for (int y = 0; y < D; y++) {
+                for (int x = 0; x < D; x++) {
+                    assertEquals(expected.getDisplayHandle(x, y, z), renderer.getNOCCube().getDisplayHandle(x, y, z));
+                    assertEquals(expected.getOrientation(x, y, z), renderer.getNOCCube().getOrientation(x, y, z));
+                }
+            }
+        }
+        assertShowsTheNOCCube();
+    }
+
+    // A full queue of moves that cancel out, then the move that solves it: the last move must still
+    // be shown (and only then the noccube settle as solved)
+    @Test
+    public void solvingMove_afterCancellingMoves_isNotLost() {
+        final Random rand = new Random(18);
+        settle(rand);
+        final NOCCube noccube = renderer.getNOCCube();
+
+        // The move undoing the scramble
+        final NOCCube trial = new NOCCube(D);
+        int solving[] = null;
+        for (int move = 0; move < 6*D && solving == null; move++) {
+            trial.set(noccube);
+            trial.rotate(move % 3, (move / 3) % D, move < 3*D);
+            if (trial.isSolved()) solving = new int[] { move % 3, (move / 3) % D, move < 3*D ? 1 : 0 };
+        }
+        assertNotNull(solving);
+
+        for (int pair = 0; pair <= NOCCubeRenderer.MAX_QUEUED_MOVES / 2; pair++) {
+            renderer.permute(NOCCube.AXIS_X, pair % D, true);
+            renderer.permute(NOCCube.AXIS_X, pair % D, false);
+        }
+        renderer.permute(solving[0], solving[1], solving[2] == 1);
+        assertTrue(noccube.isSolved());
+
+        settle(rand);
+        assertEquals(NOCCubeRenderer.SOLVED, renderer.getAnimationState());
+        assertShowsTheNOCCube();
+    }
+}
@@ -0,0 +1,46 @@
+package com.dramacow.noccube;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PickerTest {
+
+    private static final int D = 5;
+
+    private final Picker picker = new Picker();
+
+    // Inverse of a view-projection that just shrinks everything by 4 (looking along +z)
+    private static float[] inverseShrink() {
+        final float m[] = new float[16];
+        Matrix4.setIdentityM(m, 0);
+        Matrix4.scaleM(m, 0, 4.0f, 4.0f, 4.0f);
+        return m;
+    }
+
+    @Test
+    public void pick_findsTheFaceAndCube() {
+        assertEquals(Picker.BACK, picker.pick(inverseShrink(), 0.1f, -0.2f, D));
+        assertArrayEquals(new float[] { 0.4f, -0.8f, -1.0f }, picker.point, 1e-6f);
+        assertArrayEquals(new int[] { 3, 0, 0 }, picker.cube);
+    }
+
+    @Test
+    public void pick_entersThroughTheSideItReachesLast() {
+        // Tilted, so the ray crosses x = 1 before it reaches z = -1
+        final float m[] = inverseShrink();
+        m[8] = -2.0f; // x decreases as z increases
+
+        assertEquals(Picker.RIGHT, picker.pick(m, 0.3f, 0.0f, D));
+        assertEquals(0.4f, picker.point[2], 1e-6f);
+        assertEquals(1.0f, picker.point[0], 1e-6f);
+        assertEquals(D - 1, picker.cube[0]);
+        assertEquals(D / 2, picker.cube[1]);
+    }
+
+    @Test
+    public void pick_missesOutsideTheNOCCube() {
+        assertEquals(-1, picker.pick(inverseShrink(), 0.5f, 0.0f, D));
+        assertEquals(-1, picker.face);
+    }
+}
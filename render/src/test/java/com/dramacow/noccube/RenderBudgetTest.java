@@ -0,0 +1,92 @@
+package com.dramacow.noccube;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+// GL work per frame of a d=10 noccube, counted by a HeadlessBackend
+public class RenderBudgetTest {
+
+    private static final int D = 10;
+    private static final float DT = HeadlessFixture.DT;
+
+    private final float vpMatrix[] = new float[16];
+    private ShaderProgram program;
+
+    // Sets up a noccube on a fresh backend and draws it until idle, then resets the counters
+    private NOCCubeRenderer idleRenderer(final HeadlessBackend backend) {
+        program = HeadlessFixture.reset(backend);
+        final NOCCubeRenderer renderer = new NOCCubeRenderer(new NOCCube(D), HeadlessFixture.blank(), HeadlessFixture.faces());
+        HeadlessFixture.settleIdle(renderer, program);
+
+        backend.reset();
+        return renderer;
+    }
+
+    @Test
+    public void instanced_drawsOnlyTheShell() {
+        final HeadlessBackend backend = new HeadlessBackend(true, 256);
+        idleRenderer(backend).draw(vpMatrix, program, DT);
+
+        assertEquals(7, backend.drawCalls); // One per face, plus the core
+        assertEquals(6 * D*D + 1, backend.instances);
+        assertEquals(6 * 6 * D*D + 36, backend.indices);
+        assertEquals(0, backend.textureBinds);
+        assertTrue("uploaded: " + backend.uploadedBytes, backend.uploadedBytes < 1024); // Nothing per cube, just uniforms
+    }
+
+    @Test
+    public void scramblingFrames_uploadNothingPerCube() {
+        final HeadlessBackend backend = new HeadlessBackend(true, 256);
+        program = HeadlessFixture.reset(backend);
+        final NOCCubeRenderer renderer = new NOCCubeRenderer(new NOCCube(D), HeadlessFixture.blank(), HeadlessFixture.faces());
+        renderer.draw(vpMatrix, program, DT);
+
+        // The cubes moving apart is just the seperation changing
+        backend.reset();
+        renderer.draw(vpMatrix, program, DT);
+        assertEquals(NOCCubeRenderer.EXPAND, renderer.getAnimationState());
+        assertEquals(D*D*D, backend.instances);
+        assertTrue("uploaded: " + backend.uploadedBytes, backend.uploadedBytes < 1024);
+    }
+
+    @Test
+    public void turningSlice_drawsOnlyWhatItExposes() {
+        final HeadlessBackend backend = new HeadlessBackend(true, 256);
+        final NOCCubeRenderer renderer = idleRenderer(backend);
+
+        renderer.permute(NOCCube.AXIS_Y, D / 2, true);
+        backend.reset();
+        renderer.draw(vpMatrix, program, DT);
+
+        assertEquals(NOCCubeRenderer.ROTATING, renderer.getAnimationState());
+        assertEquals(7, backend.drawCalls); // Still one per face, plus the (now three) core boxes
+        assertTrue(backend.indices > 6 * 6 * D*D + 3 * 36);
+        assertTrue(backend.indices < 6 * 6 * D*D + 3 * 36 + 4 * 6 * D*D); // Never every face of both neighbours
+    }
+
+    @Test
+    public void uniformArrays_stayWithinBudget() {
+        final HeadlessBackend backend = new HeadlessBackend(); // Minimum OpenGL ES 2.0 limits
+        idleRenderer(backend).draw(vpMatrix, program, DT);
+
+        assertTrue("draw calls: " + backend.drawCalls, backend.drawCalls <= 50);
+        assertEquals(6 * 6 * D*D + 36, backend.indices);
+        assertEquals(0, backend.textureBinds);
+        assertTrue("state changes: " + backend.stateChanges, backend.stateChanges <= 20);
+    }
+
+    @Test
+    public void lostContext_reuploadsOnlyOnce() {
+        final HeadlessBackend backend = new HeadlessBackend(true, 256);
+        final NOCCubeRenderer renderer = idleRenderer(backend);
+
+        Geometry.invalidate(); // As if the context had been lost
+        renderer.draw(vpMatrix, program, DT);
+        final long reupload = backend.uploadedBytes;
+
+        backend.reset();
+        renderer.draw(vpMatrix, program, DT);
+        assertTrue(backend.uploadedBytes < reupload);
+    }
+}
@@ -0,0 +1,45 @@
+#!/bin/sh
+# Compresses the face textures into app/src/main/assets/textures/faces.ktx, read by GLRendererEx:
+# the inside then the six faces, left to right along a 4x2 grid of tiles, as ETC1 with mipmaps.
+#
+# Each face is shrunk into its tile, leaving a gutter 1/GUTTER of the tile wide all round filled by
+# repeating the face's edge texels (GUTTER must match FACES_GUTTER in GLRendererEx). Every mipmap
+# down to 1x1 is kept, so OpenGL ES 2.0 can sample them all; on OpenGL ES 3.0 GLRendererEx stops
+# sampling where the gutter is a texel wide, so filtering never mixes neighbouring faces.
+#
+# Needs ImageMagick (convert, montage, identify) and EtcTool (from etc2comp) on the PATH. The faces
+# must all be the same power of two size, at least GUTTER texels. Run again whenever one changes.
+set -e
+
+cd "$(dirname "$0")/.."
+RES=${RES:-app/src/main/res/drawable}
+OUT=app/src/main/assets/textures
+GUTTER=16
+
+TMP=$(mktemp -d)
+trap 'rm -rf "$TMP"' EXIT
+
+tile=$(identify -format '%w' "$RES/inside.png")
+gutter=$((tile / GUTTER))
+inner=$((tile - 2 * gutter))
+
+tiles=""
+for face in inside blue green red orange yellow purple; do
+    convert "$RES/$face.png" -resize "${inner}x${inner}!" \
+            -virtual-pixel edge -set option:distort:viewport "${tile}x${tile}-${gutter}-${gutter}" \
+            -distort SRT 0 +repage "$TMP/$face.png"
+    tiles="$tiles $TMP/$face.png"
+done
+
+montage $tiles null: -tile 4x2 -geometry +0+0 -background black "$TMP/faces.png"
+
+# Levels down to 1x1 (the grid is twice as wide as it is tall)
+levels=1
+size=$((tile * 4))
+while [ "$size" -gt 1 ]; do
+    size=$((size / 2))
+    levels=$((levels + 1))
+done
+
+mkdir -p "$OUT"
+EtcTool "$TMP/faces.png" -format ETC1 -mipmaps "$levels" -output "$OUT/faces.ktx"